@@ -22,24 +22,64 @@
 package com.github.cjengineer18.desktopwindowtemplate;
 
 import java.awt.Dimension;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
 import java.awt.Insets;
+import java.awt.Rectangle;
 import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
 import java.awt.event.WindowStateListener;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
+import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
+import com.github.cjengineer18.desktopwindowtemplate.component.JCommandPalette;
 import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidCommandException;
 import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+import com.github.cjengineer18.desktopwindowtemplate.util.async.IdleTaskQueue;
+import com.github.cjengineer18.desktopwindowtemplate.util.async.StagedLoader;
+import com.github.cjengineer18.desktopwindowtemplate.util.async.StagedSection;
+import com.github.cjengineer18.desktopwindowtemplate.util.event.WindowListenerRegistry;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.CommandIndex;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuLocalizer;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.EdtWatchdog;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.InstrumentedEventQueue;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.StallSink;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.StartupTrace;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.StartupTracer;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.WindowLeakDetector;
+import com.github.cjengineer18.desktopwindowtemplate.util.state.StateSlots;
+import com.github.cjengineer18.desktopwindowtemplate.util.state.UpdateBatch;
+import com.github.cjengineer18.desktopwindowtemplate.util.state.UpdateBus;
+import com.github.cjengineer18.desktopwindowtemplate.util.state.WindowUpdate;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.Hibernatable;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.PlatformDecorations;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.PrewarmedWindow;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.SharedResources;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.WindowGeometryStore;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.WindowPool;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.WindowRegistry;
 
 /**
  * Generic window for any desktop application.
@@ -58,10 +98,27 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 
 	/* Private Attributes */
 
-	private ArrayList<WindowListener> listeners1;
-	private ArrayList<WindowStateListener> listeners2;
+	private transient WindowListenerRegistry listenerRegistry;
+	private boolean listenersEnabled;
+	private LinkedHashMap<Integer, Object> pendingUpdates;
+	private boolean updateScheduled;
 	private Dimension originalSize;
 	private Dimension realSize;
+	private Dimension startupSize;
+	private String geometryKey;
+	private int startupState;
+	private boolean instrumentEventQueue;
+	private transient StartupTracer startupTracer;
+	private transient StartupTrace startupTrace;
+	private transient WindowPool pool;
+	private transient Runnable pendingBuild;
+	private transient StagedLoader stagedLoader;
+	private transient StateSlots stateSlots;
+	private transient UpdateBus updateBus;
+	private transient ArrayList<Hibernatable> hibernatables;
+	private boolean hibernating;
+	private transient JCommandPalette commandPalette;
+	private boolean prewarm;
 
 	/* Public Constants */
 
@@ -88,8 +145,30 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 	/** Default builder. */
 	public JGenericWindow() {
 		super();
-		listeners1 = new ArrayList<WindowListener>();
-		listeners2 = new ArrayList<WindowStateListener>();
+		listenerRegistry = new WindowListenerRegistry();
+		pendingUpdates = new LinkedHashMap<Integer, Object>();
+		WindowRegistry.getDefault().register(this);
+	}
+
+	/**
+	 * Build a window ahead of time. The window is created, and its work area
+	 * is built and packed, while the application is idle, but it isn't shown
+	 * (and {@code afterLoadArea()} isn't invoked) until {@code showWindow()}
+	 * is invoked. If the window is required before the idle time comes, it is
+	 * built at that moment.
+	 * 
+	 * @param <T>
+	 *            The window class.
+	 * @param factory
+	 *            Creates the window, usually invoking its constructor.
+	 * 
+	 * @return The window to be pre-warmed.
+	 * 
+	 * @see PrewarmedWindow
+	 * @see #showWindow()
+	 */
+	public static <T extends JGenericWindow> PrewarmedWindow<T> prewarm(Callable<T> factory) {
+		return PrewarmedWindow.schedule(factory);
 	}
 
 	// Abstract methods
@@ -99,6 +178,9 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 
 	/**
 	 * Universal getter for any window property.
+	 * <p>
+	 * Windows updated at a high rate can keep their state in
+	 * {@link StateSlots} instead, which doesn't box the primitive values.
 	 * 
 	 * @param objectIndex
 	 *            Object index. It must be a constant. If the index doesn't
@@ -118,6 +200,8 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 	 * 
 	 * @throws InvalidCommandException
 	 *             If {@code objectIndex} doesn't match any valid index.
+	 * 
+	 * @see #createStateSlots(int)
 	 */
 	public abstract void singleSetter(int objectIndex, Object newObject) throws InvalidCommandException;
 
@@ -166,6 +250,40 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		// empty
 	}
 
+	/**
+	 * This method resets the window before it is put in the pool, after being
+	 * closed, so it can be shown again as a new window (clear fields, select
+	 * the first tab...). This method is only invoked when pooling is enabled.
+	 * After this method, the shared resources of the window are released and
+	 * its update bus is stopped, so they must be acquired or enabled again
+	 * when the window is reused. By default, this method does nothing, but can
+	 * be override.
+	 * 
+	 * @throws Exception
+	 *             If any error. The window is disposed instead of being pooled.
+	 * 
+	 * @see #enablePooling()
+	 */
+	protected void resetForReuse() throws Exception {
+		// empty
+	}
+
+	/**
+	 * This method refreshes the window once after it wakes up from
+	 * hibernation, when all its resources are awake again (reload the data
+	 * that changed meanwhile, for example). The window is laid out and
+	 * repainted after this method. By default, this method does nothing, but
+	 * can be override.
+	 * 
+	 * @throws Exception
+	 *             If any error.
+	 * 
+	 * @see #enableHibernation()
+	 */
+	protected void refreshAfterHibernation() throws Exception {
+		// empty
+	}
+
 	// Common methods
 	// This methods is common for all classes which
 	// extends this class.
@@ -188,9 +306,83 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		return realSize;
 	}
 
-	/** Show the window (again). */
+	/**
+	 * Gets the timed phases of the window startup (inset probe,
+	 * {@code beforeLoadArea()}, {@code workArea()}, layout, show,
+	 * {@code afterLoadArea()}...). To receive the traces of all the windows,
+	 * use {@code StartupTracer.addListener(StartupTraceListener)}.
+	 * 
+	 * @return The startup trace, or {@code null} if the window isn't loaded
+	 *         yet.
+	 * 
+	 * @see StartupTracer#addListener(com.github.cjengineer18.desktopwindowtemplate.util.monitor.StartupTraceListener)
+	 */
+	public final StartupTrace getStartupTrace() {
+		return startupTrace;
+	}
+
+	/**
+	 * Gets the typed state slots of the window.
+	 * 
+	 * @return The slots, or {@code null} if they weren't created.
+	 * 
+	 * @see #createStateSlots(int)
+	 */
+	public final StateSlots getStateSlots() {
+		return stateSlots;
+	}
+
+	/**
+	 * Gets the update bus of the window, where the background threads post
+	 * their updates.
+	 * 
+	 * @return The bus, or {@code null} if it wasn't enabled.
+	 * 
+	 * @see #enableUpdateBus(int, int)
+	 */
+	public final UpdateBus getUpdateBus() {
+		return updateBus;
+	}
+
+	/**
+	 * Checks if the window is hibernating (iconified, with its resources
+	 * paused).
+	 * 
+	 * @return {@code true} if the window is hibernating.
+	 * 
+	 * @see #enableHibernation()
+	 */
+	public final boolean isHibernating() {
+		return hibernating;
+	}
+
+	/**
+	 * Show the window (again). A pre-warmed window is built now if it wasn't
+	 * built yet while the application was idle. Out of the Event Dispatch
+	 * Thread, the window is shown later in the EDT.
+	 * 
+	 * @see #prewarm(Callable)
+	 */
 	public final void showWindow() {
-		setVisible(true);
+		if (!SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					showWindow();
+				}
+
+			});
+		} else if (prewarm) {
+			if (pendingBuild != null) {
+				IdleTaskQueue.getDefault().cancel(pendingBuild);
+				buildWorkArea();
+			}
+
+			showLoadedWindow();
+		} else {
+			setVisible(true);
+		}
 	}
 
 	/** Hide the window without close it. */
@@ -206,6 +398,95 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		setVisible(true);
 	}
 
+	/**
+	 * Apply many {@code singleSetter(int, Object)} calls together, with only
+	 * one layout and repaint at the end. In the Event Dispatch Thread, the
+	 * batch is applied right away. From any other thread, the values are
+	 * recorded and applied later in the EDT, merged with the other pending
+	 * batches: only the last value of each index is set.
+	 * 
+	 * @param update
+	 *            The updates to apply.
+	 * 
+	 * @throws InvalidCommandException
+	 *             If an index doesn't match any valid index, when invoked in
+	 *             the EDT. The errors of the batches applied later are logged.
+	 * 
+	 * @see #singleSetter(int, Object)
+	 */
+	public final void update(WindowUpdate update) throws InvalidCommandException {
+		if (SwingUtilities.isEventDispatchThread()) {
+			try {
+				update.apply(new UpdateBatch() {
+
+					@Override
+					public void set(int objectIndex, Object newObject) throws InvalidCommandException {
+						singleSetter(objectIndex, newObject);
+					}
+
+				});
+			} finally {
+				relayout();
+			}
+		} else {
+			final LinkedHashMap<Integer, Object> recorded = new LinkedHashMap<Integer, Object>();
+			boolean schedule;
+
+			update.apply(new UpdateBatch() {
+
+				@Override
+				public void set(int objectIndex, Object newObject) {
+					recorded.put(objectIndex, newObject);
+				}
+
+			});
+
+			synchronized (pendingUpdates) {
+				pendingUpdates.putAll(recorded);
+				schedule = !updateScheduled && !pendingUpdates.isEmpty();
+				updateScheduled |= schedule;
+			}
+
+			if (schedule) {
+				SwingUtilities.invokeLater(new Runnable() {
+
+					@Override
+					public void run() {
+						applyPendingUpdates();
+					}
+
+				});
+			}
+		}
+	}
+
+	/**
+	 * Switch the language of the window. The localized menus and items of the
+	 * menu bar are relabeled in place, in one pass and with one layout, without
+	 * building them again. Must be invoked in the Event Dispatch Thread.
+	 * 
+	 * @param locale
+	 *            The new locale.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code locale} is {@code null}.
+	 * 
+	 * @see MenuLocalizer
+	 */
+	public final void applyLocale(Locale locale) throws InvalidParameterException {
+		if (locale != null) {
+			JMenuBar menuBar = getJMenuBar();
+
+			setLocale(locale);
+
+			if (menuBar != null) {
+				MenuLocalizer.relabel(menuBar, locale);
+			}
+		} else {
+			throw new InvalidParameterException(new NullPointerException("locale"));
+		}
+	}
+
 	/**
 	 * Maximize the window from outside. This only has an effect when the window
 	 * doesn't have a fixed size.
@@ -260,20 +541,25 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 	protected final void loadWorkArea(String title, int width, int height, boolean fixedWindow, int typeClosingWindow)
 			throws Exception {
 		Dimension screen;
-		JFrame dummy;
 		Insets windowInsets;
 		int x;
 		int y;
 
 		if (((width >= minimumSize.getWidth()) && (height >= minimumSize.getHeight())) && (title != null)) {
+			startupTracer = StartupTracer.start(this);
+
+			if (instrumentEventQueue) {
+				InstrumentedEventQueue.install();
+			}
+
 			screen = Toolkit.getDefaultToolkit().getScreenSize();
 			setTitle(title);
 			originalSize = new Dimension(width, height);
-			dummy = new JFrame();
-			dummy.setLayout(null);
-			dummy.pack();
-			windowInsets = (Insets) dummy.getInsets().clone();
+			startupTracer.begin("insetProbe");
+			windowInsets = PlatformDecorations.getDefault().getInsets();
+			startupTracer.end();
 			realSize = createWorkArea(originalSize, windowInsets);
+			startupSize = realSize;
 			setSize(realSize);
 			setPreferredSize(realSize);
 			x = (int) ((screen.getWidth() / 2) - (realSize.getWidth() / 2));
@@ -281,7 +567,14 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 			setLocation(x, y);
 			setResizable(!fixedWindow);
 			tolerableMinimumSize(windowInsets);
+
+			if (geometryKey != null) {
+				restoreGeometry();
+			}
+
+			startupTracer.begin("beforeLoadArea");
 			beforeLoadArea();
+			startupTracer.end();
 
 			switch (typeClosingWindow) {
 			case JGenericWindow.NO_CONFIRM_AT_CLOSE:
@@ -291,7 +584,8 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 				setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
 				break;
 			case JGenericWindow.CLOSE_NOT_MAIN_WINDOW:
-				setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+				setDefaultCloseOperation(
+						(pool != null) ? WindowConstants.HIDE_ON_CLOSE : WindowConstants.DISPOSE_ON_CLOSE);
 				break;
 			// ERROR! Neither of the 3!
 			default:
@@ -299,21 +593,22 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 						String.format(Locale.ENGLISH, "typeClosingWindow = %d?", typeClosingWindow));
 			}
 
-			SwingUtilities.invokeLater(new Runnable() {
+			prewarm = PrewarmedWindow.isBuilding();
+			pendingBuild = new Runnable() {
 
 				@Override
 				public void run() {
-					try {
-						workArea();
-						pack();
-						setVisible(true);
-						executeAfterLoadArea();
-					} catch (Exception exc) {
-						Logger.getLogger(JGenericWindow.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
-					}
+					buildWorkArea();
 				}
 
-			});
+			};
+			startupTracer.begin("queued");
+
+			if (prewarm) {
+				IdleTaskQueue.getDefault().submit(pendingBuild);
+			} else {
+				SwingUtilities.invokeLater(pendingBuild);
+			}
 		} else {
 			if ((width <= 0) || (height <= 0)) {
 				throw new InvalidParameterException(
@@ -336,11 +631,33 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 	 * @see #enableListeners()
 	 */
 	protected final void addListeners(WindowListener... listeners) throws InvalidParameterException {
+		addListeners(WindowListenerRegistry.DEFAULT, listeners);
+	}
+
+	/**
+	 * Add the listener to the window, with the given registration flags. A
+	 * {@code WEAK} listener doesn't keep its owner alive, and an {@code ASYNC}
+	 * listener is notified in order outside the Event Dispatch Thread.
+	 * 
+	 * @param flags
+	 *            {@code WindowListenerRegistry.DEFAULT}, or any combination of
+	 *            {@code WindowListenerRegistry.WEAK} and
+	 *            {@code WindowListenerRegistry.ASYNC}.
+	 * @param listeners
+	 *            Objects which listen the window events.
+	 * 
+	 * @throws InvalidParameterException
+	 *             if {@code listeners} is {@code null}.
+	 * 
+	 * @see WindowListenerRegistry
+	 * @see #removeListener(EventListener)
+	 */
+	protected final void addListeners(int flags, WindowListener... listeners) throws InvalidParameterException {
 		if (listeners != null) {
 			if (listeners.length > 0) {
 				for (WindowListener wl : listeners) {
 					if (wl != null) {
-						listeners1.add(wl);
+						listenerRegistry.add(wl, flags);
 					} else {
 						Logger.getLogger(JGenericWindow.class.getName()).log(Level.WARNING,
 								"A listener is null. Ignoring...");
@@ -366,11 +683,30 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 	 * @see #enableListeners()
 	 */
 	protected final void addListeners(WindowStateListener... listeners) throws InvalidParameterException {
+		addListeners(WindowListenerRegistry.DEFAULT, listeners);
+	}
+
+	/**
+	 * Add the listener to the window, with the given registration flags.
+	 * 
+	 * @param flags
+	 *            {@code WindowListenerRegistry.DEFAULT}, or any combination of
+	 *            {@code WindowListenerRegistry.WEAK} and
+	 *            {@code WindowListenerRegistry.ASYNC}.
+	 * @param listeners
+	 *            Objects which listen the window changes.
+	 * 
+	 * @throws InvalidParameterException
+	 *             if {@code listeners} is {@code null}.
+	 * 
+	 * @see #addListeners(int, WindowListener...)
+	 */
+	protected final void addListeners(int flags, WindowStateListener... listeners) throws InvalidParameterException {
 		if (listeners != null) {
 			if (listeners.length != 0) {
 				for (WindowStateListener wsl : listeners) {
 					if (wsl != null) {
-						listeners2.add(wsl);
+						listenerRegistry.add(wsl, flags);
 					} else {
 						Logger.getLogger(JGenericWindow.class.getName()).log(Level.WARNING,
 								"An listener is null. Ignoring...");
@@ -384,9 +720,22 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		}
 	}
 
+	/**
+	 * Remove a listener added by any {@code addListeners} method.
+	 * 
+	 * @param listener
+	 *            The listener to remove.
+	 * 
+	 * @return {@code true} if the listener was added before.
+	 */
+	protected final boolean removeListener(EventListener listener) {
+		return listenerRegistry.remove(listener);
+	}
+
 	/**
 	 * Enable the listeners added by {@code addListeners(WindowListener...)} and
-	 * {@code addListeners(WindowStateListener...)}.
+	 * {@code addListeners(WindowStateListener...)}. The listeners added later
+	 * are enabled too.
 	 * 
 	 * @see #addListeners(WindowListener...)
 	 * @see #addListeners(WindowStateListener...)
@@ -396,16 +745,10 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 
 			@Override
 			public void run() {
-				if (!listeners1.isEmpty()) {
-					for (WindowListener wl : listeners1) {
-						addWindowListener(wl);
-					}
-				}
-
-				if (!listeners2.isEmpty()) {
-					for (WindowStateListener wsl : listeners2) {
-						addWindowStateListener(wsl);
-					}
+				if (!listenersEnabled) {
+					listenersEnabled = true;
+					addWindowListener(listenerRegistry);
+					addWindowStateListener(listenerRegistry);
 				}
 			}
 
@@ -443,6 +786,328 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		return success;
 	}
 
+	/**
+	 * Install a watchdog which reports when the Event Dispatch Thread is busy
+	 * for more than {@code threshold} milliseconds (for example, a heavy
+	 * {@code workArea()} or listener). The watchdog is shared by all the
+	 * windows, so only the first call installs it.
+	 * 
+	 * @param threshold
+	 *            The maximum time, in milliseconds, the EDT can be busy.
+	 * @param sink
+	 *            Where the stalls will be reported.
+	 * 
+	 * @return The installed watchdog.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code threshold} isn't positive or {@code sink} is
+	 *             {@code null}.
+	 * 
+	 * @see EdtWatchdog
+	 */
+	protected final EdtWatchdog enableStallWatchdog(long threshold, StallSink sink) throws InvalidParameterException {
+		return EdtWatchdog.install(threshold, sink);
+	}
+
+	/**
+	 * Install the {@link InstrumentedEventQueue} when the window is loaded, to
+	 * record the queue wait and dispatch latencies of the events. Invoke before
+	 * {@code loadWorkArea(String, int, int, boolean, int)}.
+	 * 
+	 * @see InstrumentedEventQueue
+	 * @see #loadWorkArea(String, int, int, boolean, int)
+	 */
+	protected final void enableEventQueueInstrumentation() {
+		instrumentEventQueue = true;
+	}
+
+	/**
+	 * Reuse this window instead of disposing it when it is closed. The window
+	 * is hidden, reset by {@code resetForReuse()} and put in the default
+	 * {@link WindowPool}, which will return it by
+	 * {@code WindowPool.obtain(Class, Callable)}. This only has an effect with
+	 * {@code CLOSE_NOT_MAIN_WINDOW}. Invoke before
+	 * {@code loadWorkArea(String, int, int, boolean, int)}.
+	 * 
+	 * @see #resetForReuse()
+	 * @see #CLOSE_NOT_MAIN_WINDOW
+	 * @see WindowPool#obtain(Class, java.util.concurrent.Callable)
+	 */
+	protected final void enablePooling() {
+		enablePooling(WindowPool.getDefault());
+	}
+
+	/**
+	 * Reuse this window instead of disposing it when it is closed, using the
+	 * given pool.
+	 * 
+	 * @param pool
+	 *            The pool where the window will be put.
+	 * 
+	 * @see #enablePooling()
+	 */
+	protected final void enablePooling(WindowPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Processes the window events. When pooling is enabled, a closed window is
+	 * put in the pool. A disposed window stops its update bus and, when the
+	 * {@link WindowLeakDetector} is installed, it is tracked until it is
+	 * garbage collected.
+	 * 
+	 * @see #enablePooling()
+	 * @see WindowLeakDetector
+	 */
+	@Override
+	protected void processWindowEvent(WindowEvent e) {
+		super.processWindowEvent(e);
+
+		if ((e.getID() == WindowEvent.WINDOW_CLOSING) && (pool != null)
+				&& (getDefaultCloseOperation() == WindowConstants.HIDE_ON_CLOSE)) {
+			recycle();
+		} else if (e.getID() == WindowEvent.WINDOW_CLOSED) {
+			WindowLeakDetector detector = WindowLeakDetector.getInstalled();
+
+			if (updateBus != null) {
+				updateBus.stop();
+			}
+
+			if (detector != null) {
+				detector.track(this);
+			}
+		}
+	}
+
+	/**
+	 * Load an expensive section of the window in stages. Invoke from
+	 * {@code workArea()}, which then only needs to build a light skeleton of
+	 * the window: the section data is prepared in background right away, and
+	 * the section is attached to the window, in small time slices, once the
+	 * skeleton is visible.
+	 * 
+	 * @param section
+	 *            The section to load.
+	 * 
+	 * @see StagedSection
+	 * @see #workArea()
+	 */
+	protected final void loadStaged(StagedSection<?> section) {
+		if (stagedLoader == null) {
+			stagedLoader = new StagedLoader(getRootPane(), 10L);
+		}
+
+		stagedLoader.load(section);
+
+		if (isVisible()) {
+			stagedLoader.start();
+		}
+	}
+
+	/**
+	 * Remember the size, position and maximized state of the window between
+	 * runs. The geometry saved with the same key is restored before the window
+	 * is laid out (instead of centering it), and the changes are saved in the
+	 * default {@link WindowGeometryStore}, in background. Invoke before
+	 * {@code loadWorkArea(String, int, int, boolean, int)}.
+	 * 
+	 * @param windowKey
+	 *            A key that identifies the window, unique in the application.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code windowKey} is {@code null}.
+	 * 
+	 * @see WindowGeometryStore
+	 * @see #loadWorkArea(String, int, int, boolean, int)
+	 */
+	protected final void persistGeometry(String windowKey) throws InvalidParameterException {
+		if (windowKey != null) {
+			geometryKey = windowKey;
+		} else {
+			throw new InvalidParameterException(new NullPointerException("windowKey"));
+		}
+	}
+
+	/**
+	 * Create the typed state slots of the window. The slot indexes are the
+	 * same constants used by {@code singleGetter(int)} and
+	 * {@code singleSetter(int, Object)}, but the primitive values are stored
+	 * without boxing, and the listeners are notified once for every batch of
+	 * changes.
+	 * 
+	 * @param size
+	 *            The number of slots.
+	 * 
+	 * @return The created slots.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code size} isn't positive.
+	 * 
+	 * @see StateSlots
+	 */
+	protected final StateSlots createStateSlots(int size) throws InvalidParameterException {
+		stateSlots = new StateSlots(size);
+
+		return stateSlots;
+	}
+
+	/**
+	 * Enable a frame rate limited update bus for this window. The updates
+	 * posted to the bus from any thread are applied through
+	 * {@code singleSetter(int, Object)} at most {@code framesPerSecond} times
+	 * per second, keeping only the latest value of each index. The bus stops
+	 * when the window is closed.
+	 * 
+	 * @param keys
+	 *            The number of object indexes (from {@code 0} to
+	 *            {@code keys - 1}).
+	 * @param framesPerSecond
+	 *            The maximum number of flushes per second.
+	 * 
+	 * @return The bus.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code keys} or {@code framesPerSecond} aren't positive.
+	 * 
+	 * @see UpdateBus
+	 */
+	protected final UpdateBus enableUpdateBus(int keys, int framesPerSecond) throws InvalidParameterException {
+		UpdateBus bus = new UpdateBus(this, keys, framesPerSecond);
+
+		if (updateBus != null) {
+			updateBus.stop();
+		}
+
+		// Stopped by processWindowEvent(WindowEvent), or by recycle()
+		updateBus = bus;
+
+		return bus;
+	}
+
+	/**
+	 * Pause the window while it is iconified. When the window is iconified,
+	 * the resources added by {@code addHibernatable(Hibernatable)} are
+	 * hibernated and the update bus is paused; when it is restored, all of
+	 * them are woken up and the window is refreshed once, by
+	 * {@code refreshAfterHibernation()}.
+	 * 
+	 * @see #addHibernatable(Hibernatable)
+	 * @see #refreshAfterHibernation()
+	 */
+	protected final void enableHibernation() {
+		if (hibernatables == null) {
+			hibernatables = new ArrayList<Hibernatable>();
+			addWindowStateListener(new WindowStateListener() {
+
+				@Override
+				public void windowStateChanged(WindowEvent e) {
+					boolean iconified = (e.getNewState() & JFrame.ICONIFIED) != 0;
+
+					if (iconified && !hibernating) {
+						hibernate();
+					} else if (!iconified && hibernating) {
+						wake();
+					}
+				}
+
+			});
+		}
+	}
+
+	/**
+	 * Add a resource to pause while the window is iconified. Enables the
+	 * hibernation if it wasn't enabled.
+	 * 
+	 * @param resource
+	 *            The resource (a timer, an animation, a poller, a cache...).
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code resource} is {@code null}.
+	 * 
+	 * @see Hibernatable
+	 * @see #enableHibernation()
+	 */
+	protected final void addHibernatable(Hibernatable resource) throws InvalidParameterException {
+		if (resource != null) {
+			enableHibernation();
+			hibernatables.add(resource);
+
+			if (hibernating) {
+				resource.hibernate();
+			}
+		} else {
+			throw new InvalidParameterException(new NullPointerException("resource"));
+		}
+	}
+
+	/**
+	 * Remove a resource added by {@code addHibernatable(Hibernatable)}.
+	 * 
+	 * @param resource
+	 *            The resource to remove.
+	 */
+	protected final void removeHibernatable(Hibernatable resource) {
+		if (hibernatables != null) {
+			hibernatables.remove(resource);
+		}
+	}
+
+	/**
+	 * Get a heavy resource shared with the other windows (a font, an icon, a
+	 * model...). The resource is created the first time it is required, and
+	 * released when the last window using it is closed.
+	 * 
+	 * @param <T>
+	 *            The resource class.
+	 * @param key
+	 *            The resource key.
+	 * @param factory
+	 *            Creates the resource if it doesn't exist.
+	 * 
+	 * @return The shared resource.
+	 * 
+	 * @throws Exception
+	 *             If {@code factory} fails or returns {@code null}.
+	 * 
+	 * @see SharedResources
+	 */
+	protected final <T> T acquireShared(String key, Callable<T> factory) throws Exception {
+		return SharedResources.getDefault().acquire(this, key, factory);
+	}
+
+	/**
+	 * Open a command palette with a key stroke. The palette searches all the
+	 * items of the window's menu bar, indexed once (the first time it is
+	 * opened) and kept up to date while the menus change.
+	 * 
+	 * @param keyStroke
+	 *            The key stroke which opens the palette (for example,
+	 *            {@code control shift P}).
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code keyStroke} is {@code null}.
+	 * 
+	 * @see JCommandPalette
+	 * @see CommandIndex
+	 */
+	protected final void enableCommandPalette(KeyStroke keyStroke) throws InvalidParameterException {
+		if (keyStroke != null) {
+			getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(keyStroke, "commandPalette");
+			getRootPane().getActionMap().put("commandPalette", new AbstractAction() {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					openCommandPalette();
+				}
+
+			});
+		} else {
+			throw new InvalidParameterException(new NullPointerException("keyStroke"));
+		}
+	}
+
 	/**
 	 * Maximize the window. This only has an effect when the window doesn't have
 	 * a fixed size.
@@ -471,7 +1136,7 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 	 */
 	private Dimension createWorkArea(Dimension originalSize, Insets insets) {
 		int[] insetValues = new int[2];
-		String os = System.getProperty("os.name");
+		PlatformDecorations platform = PlatformDecorations.getDefault();
 
 		int realWidth;
 		int realHeight;
@@ -483,7 +1148,7 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		 * part by adding the border size to the area.
 		 */
 
-		if (os.contains("Windows")) {
+		if (platform.isWindows()) {
 			// FIXME Windows insets
 			/*
 			 * Windows adds 2 extra pixels to the borders, causing some errors
@@ -492,7 +1157,7 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 			 */
 			insetValues[0] = insets.top - 2;
 			insetValues[1] = insets.left - 2;
-		} else if (os.contains("Linux")) {
+		} else if (platform.isLinux()) {
 			// FIXME Untested on all distros
 			insetValues[0] = 0;
 			insetValues[1] = 0;
@@ -506,9 +1171,306 @@ public abstract class JGenericWindow extends JFrame implements Serializable {
 		return new Dimension(realWidth, realHeight);
 	}
 
+	/*
+	 * The listener registry isn't serialized: a deserialized window gets an
+	 * empty one, attached again if the listeners were enabled.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		listenerRegistry = new WindowListenerRegistry();
+
+		if (listenersEnabled) {
+			addWindowListener(listenerRegistry);
+			addWindowStateListener(listenerRegistry);
+		}
+	}
+
+	/*
+	 * Apply the saved geometry before the first layout, so the window is packed
+	 * only once with its final size. The saved position is ignored if it isn't
+	 * in any screen anymore.
+	 */
+	private void restoreGeometry() {
+		WindowGeometryStore store = WindowGeometryStore.getDefault();
+		Rectangle bounds = store.getBounds(geometryKey);
+
+		if ((bounds != null) && isOnScreen(bounds)) {
+			setLocation(bounds.x, bounds.y);
+
+			if (isResizable()) {
+				startupSize = new Dimension(Math.max(bounds.width, getMinimumSize().width),
+						Math.max(bounds.height, getMinimumSize().height));
+				setSize(startupSize);
+				setPreferredSize(startupSize);
+				startupState = store.getExtendedState(geometryKey) & JFrame.MAXIMIZED_BOTH;
+			}
+		}
+	}
+
+	/*
+	 * Save the geometry when the window is moved, resized, maximized or
+	 * restored. The bounds are only saved in normal state, so a maximized
+	 * window keeps its previous size.
+	 */
+	private void trackGeometry() {
+		ComponentAdapter boundsListener = new ComponentAdapter() {
+
+			@Override
+			public void componentMoved(ComponentEvent e) {
+				saveGeometry();
+			}
+
+			@Override
+			public void componentResized(ComponentEvent e) {
+				saveGeometry();
+			}
+
+		};
+
+		addComponentListener(boundsListener);
+		addWindowStateListener(new WindowStateListener() {
+
+			@Override
+			public void windowStateChanged(WindowEvent e) {
+				saveGeometry();
+			}
+
+		});
+	}
+
+	private void saveGeometry() {
+		WindowGeometryStore store = WindowGeometryStore.getDefault();
+		int state = getExtendedState();
+		Rectangle bounds = (state == JFrame.NORMAL) ? getBounds() : store.getBounds(geometryKey);
+
+		if ((bounds != null) && ((state & JFrame.ICONIFIED) == 0)) {
+			store.put(geometryKey, bounds, state);
+		}
+	}
+
+	private static boolean isOnScreen(Rectangle bounds) {
+		for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+			if (device.getDefaultConfiguration().getBounds().intersects(bounds)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/*
+	 * Index the menu bar the first time, and again only if it was replaced.
+	 */
+	private void openCommandPalette() {
+		JMenuBar menuBar = getJMenuBar();
+
+		if (menuBar != null) {
+			if ((commandPalette == null) || (commandPalette.getIndex().getMenuBar() != menuBar)) {
+				if (commandPalette != null) {
+					commandPalette.getIndex().dispose();
+					commandPalette.dispose();
+				}
+
+				commandPalette = new JCommandPalette(this, new CommandIndex(menuBar));
+			}
+
+			commandPalette.open();
+		}
+	}
+
+	/*
+	 * Apply the updates recorded out of the EDT, in a single batch.
+	 */
+	private void applyPendingUpdates() {
+		LinkedHashMap<Integer, Object> updates;
+
+		synchronized (pendingUpdates) {
+			updates = new LinkedHashMap<Integer, Object>(pendingUpdates);
+			pendingUpdates.clear();
+			updateScheduled = false;
+		}
+
+		for (Map.Entry<Integer, Object> entry : updates.entrySet()) {
+			try {
+				singleSetter(entry.getKey(), entry.getValue());
+			} catch (InvalidCommandException ice) {
+				Logger.getLogger(JGenericWindow.class.getName()).log(Level.WARNING, ice.getMessage(), ice);
+			}
+		}
+
+		relayout();
+	}
+
+	/*
+	 * One layout and repaint for all the changes of a batch.
+	 */
+	private void relayout() {
+		getRootPane().revalidate();
+		getRootPane().repaint();
+	}
+
+	/*
+	 * Pause all the resources of the iconified window.
+	 */
+	private void hibernate() {
+		hibernating = true;
+
+		if (updateBus != null) {
+			updateBus.pause();
+		}
+
+		for (Hibernatable resource : hibernatables) {
+			try {
+				resource.hibernate();
+			} catch (RuntimeException exc) {
+				Logger.getLogger(JGenericWindow.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			}
+		}
+	}
+
+	/*
+	 * Wake the resources up and catch up with a single refresh.
+	 */
+	private void wake() {
+		hibernating = false;
+
+		for (Hibernatable resource : hibernatables) {
+			try {
+				resource.wake();
+			} catch (RuntimeException exc) {
+				Logger.getLogger(JGenericWindow.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			}
+		}
+
+		// The pending updates are applied now, and laid out below with the
+		// refresh, in a single pass
+		if (updateBus != null) {
+			updateBus.resumeAndApply();
+		}
+
+		try {
+			refreshAfterHibernation();
+		} catch (Exception exc) {
+			Logger.getLogger(JGenericWindow.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+		}
+
+		relayout();
+	}
+
+	/*
+	 * Reset the closed window and put it in the pool. If it can't be reset, it
+	 * is disposed as usual.
+	 */
+	private void recycle() {
+		try {
+			resetForReuse();
+
+			// An idle window must not hold what the open windows use
+			SharedResources.getDefault().releaseAll(this);
+
+			if (updateBus != null) {
+				updateBus.stop();
+				updateBus = null;
+			}
+
+			pool.release(this);
+		} catch (Exception exc) {
+			Logger.getLogger(JGenericWindow.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			dispose();
+		}
+	}
+
+	/*
+	 * Build the work area, only once. Unless the window is being pre-warmed,
+	 * the window is shown right after.
+	 */
+	private void buildWorkArea() {
+		if (pendingBuild != null) {
+			pendingBuild = null;
+
+			try {
+				startupTracer.begin("workArea");
+				workArea();
+				startupTracer.beginLayout("pack");
+				pack();
+			} catch (Exception exc) {
+				Logger.getLogger(JGenericWindow.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+				prewarm = false;
+				finishStartup();
+				return;
+			}
+
+			if (prewarm) {
+				startupTracer.begin("prewarmed");
+			} else {
+				showLoadedWindow();
+			}
+		}
+	}
+
+	/*
+	 * Show the built window for the first time.
+	 */
+	private void showLoadedWindow() {
+		prewarm = false;
+
+		try {
+			startupTracer.begin("show");
+
+			if (startupState != JFrame.NORMAL) {
+				setExtendedState(startupState);
+			}
+
+			setVisible(true);
+
+			if (geometryKey != null) {
+				trackGeometry();
+			}
+
+			if (stagedLoader != null) {
+				stagedLoader.start();
+			}
+
+			executeAfterLoadArea();
+		} catch (Exception exc) {
+			Logger.getLogger(JGenericWindow.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+		} finally {
+			finishStartup();
+		}
+	}
+
+	private void finishStartup() {
+		startupTrace = startupTracer.finish();
+		startupTracer = null;
+	}
+
 	private void executeAfterLoadArea() throws Exception {
+		startupTracer.begin("afterLoadArea");
 		afterLoadArea();
-		restore();
+		startupTracer.end();
+		settle();
+	}
+
+	/*
+	 * Leave the window as restore() would, but only touching what was changed
+	 * by afterLoadArea(). The window was already packed and shown with its
+	 * final size, so usually there's nothing to do and the second layout pass
+	 * (and the flicker) is avoided.
+	 */
+	private void settle() {
+		if ((getExtendedState() == JFrame.NORMAL) && !startupSize.equals(getSize())) {
+			setSize(startupSize);
+		}
+
+		if (!isValid()) {
+			startupTracer.beginLayout("validate");
+			validate();
+			startupTracer.end();
+		}
+
+		if (!isVisible()) {
+			setVisible(true);
+		}
 	}
 
 }
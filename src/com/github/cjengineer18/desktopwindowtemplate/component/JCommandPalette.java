@@ -0,0 +1,275 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.component;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JList;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.CommandIndex;
+
+/**
+ * A command palette: a small window with a search field and the menu items
+ * that match the search, found in a {@link CommandIndex}. {@code Enter} runs
+ * the selected item (as if it was clicked) and {@code Escape} closes the
+ * palette.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#enableCommandPalette(KeyStroke)
+ * 
+ * @author Cristian Jimenez
+ */
+public class JCommandPalette extends JDialog {
+
+	private static final long serialVersionUID = 45L;
+	private static final int MAX_RESULTS = 50;
+
+	private final transient CommandIndex index;
+	private final JTextField field;
+	private final DefaultListModel<JMenuItem> results;
+	private final JList<JMenuItem> list;
+
+	/**
+	 * Creates a palette.
+	 * 
+	 * @param owner
+	 *            The window of the menus.
+	 * @param index
+	 *            The index of the menus.
+	 */
+	public JCommandPalette(Frame owner, CommandIndex index) {
+		super(owner, false);
+		this.index = index;
+		this.field = new JTextField(40);
+		this.results = new DefaultListModel<JMenuItem>();
+		this.list = new JList<JMenuItem>(results);
+		createPalette();
+	}
+
+	/**
+	 * Gets the index searched by the palette.
+	 * 
+	 * @return The index.
+	 */
+	public final CommandIndex getIndex() {
+		return index;
+	}
+
+	/** Shows the palette, empty, over the top of its window. */
+	public final void open() {
+		Component owner = getOwner();
+
+		field.setText("");
+		results.clear();
+		pack();
+		setLocation(owner.getX() + ((owner.getWidth() - getWidth()) / 2), owner.getY() + (owner.getHeight() / 6));
+		setVisible(true);
+		field.requestFocusInWindow();
+	}
+
+	private void createPalette() {
+		JPanel content = new JPanel(new BorderLayout(0, 4));
+		JScrollPane scroll = new JScrollPane(list);
+
+		setUndecorated(true);
+		setDefaultCloseOperation(HIDE_ON_CLOSE);
+		content.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list.setVisibleRowCount(10);
+		list.setFocusable(false);
+		list.setCellRenderer(new DefaultListCellRenderer() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Component getListCellRendererComponent(JList<?> jList, Object value, int i, boolean selected,
+					boolean focused) {
+				JMenuItem item = (JMenuItem) value;
+				String path = index.getPath(item);
+
+				super.getListCellRendererComponent(jList, (path != null) ? path : item.getText(), i, selected,
+						focused);
+				setIcon(item.getIcon());
+
+				return this;
+			}
+
+		});
+		list.addMouseListener(new MouseAdapter() {
+
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount() == 2) {
+					runSelected();
+				}
+			}
+
+		});
+		field.getDocument().addDocumentListener(new DocumentListener() {
+
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				search();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				search();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				search();
+			}
+
+		});
+		bindKey(KeyEvent.VK_ENTER, "run", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				runSelected();
+			}
+
+		});
+		bindKey(KeyEvent.VK_ESCAPE, "close", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				setVisible(false);
+			}
+
+		});
+		bindKey(KeyEvent.VK_DOWN, "next", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				moveSelection(1);
+			}
+
+		});
+		bindKey(KeyEvent.VK_UP, "previous", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				moveSelection(-1);
+			}
+
+		});
+		addWindowListener(new WindowAdapter() {
+
+			@Override
+			public void windowDeactivated(WindowEvent e) {
+				setVisible(false);
+			}
+
+		});
+		content.add(field, BorderLayout.NORTH);
+		content.add(scroll, BorderLayout.CENTER);
+		setContentPane(content);
+	}
+
+	private void bindKey(int keyCode, String name, AbstractAction action) {
+		field.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(keyCode, 0), name);
+		field.getActionMap().put(name, action);
+	}
+
+	/*
+	 * Search on every keystroke. Only the index is searched, never the menus.
+	 */
+	private void search() {
+		List<JMenuItem> found = index.search(field.getText(), MAX_RESULTS);
+
+		results.clear();
+
+		for (JMenuItem item : found) {
+			results.addElement(item);
+		}
+
+		if (!found.isEmpty()) {
+			list.setSelectedIndex(0);
+		}
+	}
+
+	private void moveSelection(int delta) {
+		int size = results.getSize();
+
+		if (size > 0) {
+			int selected = (list.getSelectedIndex() + delta + size) % size;
+
+			list.setSelectedIndex(selected);
+			list.ensureIndexIsVisible(selected);
+		}
+	}
+
+	/*
+	 * Close the palette and click the item once the focus is back in the
+	 * window.
+	 */
+	private void runSelected() {
+		final JMenuItem item = list.getSelectedValue();
+
+		setVisible(false);
+
+		if ((item != null) && item.isEnabled()) {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					item.doClick(0);
+				}
+
+			});
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.component;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ResourceBundle;
+
+import javax.swing.JLabel;
+import javax.swing.Timer;
+
+import com.github.cjengineer18.desktopwindowtemplate.resources.constants.BundleConstants;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.InstrumentedEventQueue;
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.LatencyHistogram;
+import com.github.cjengineer18.desktopwindowtemplate.util.window.Hibernatable;
+
+/**
+ * A label that shows the 99th percentile of the event dispatch latency,
+ * measured by the {@link InstrumentedEventQueue}. It is intended to be one of
+ * the components of a {@link JStatusBar}. The label is only refreshed while it
+ * is displayed, and it can be added to the hibernatable resources of its
+ * window to stop refreshing while the window is iconified.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.StatusBarFactory
+ * 
+ * @author Cristian Jimenez
+ */
+public class JLatencyIndicator extends JLabel implements Hibernatable {
+
+	private static final long serialVersionUID = 27L;
+
+	private final Timer timer;
+	private final String format;
+
+	/**
+	 * Creates an indicator that is refreshed every second.
+	 */
+	public JLatencyIndicator() {
+		this(1000);
+	}
+
+	/**
+	 * Creates an indicator.
+	 * 
+	 * @param refreshInterval
+	 *            The time, in milliseconds, between two refreshes.
+	 */
+	public JLatencyIndicator(int refreshInterval) {
+		super();
+		format = ResourceBundle.getBundle(BundleConstants.PANELS_LOCALE).getString("latencyIndicator");
+		timer = new Timer(refreshInterval, new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				refresh();
+			}
+
+		});
+		refresh();
+	}
+
+	/** Updates the text with the current latency. */
+	public final void refresh() {
+		InstrumentedEventQueue queue = InstrumentedEventQueue.getInstalled();
+		LatencyHistogram histogram = (queue != null) ? queue.getTotalDispatch() : null;
+		double p99 = (histogram != null) ? (histogram.getValueAtPercentile(99.0) / 1000.0) : 0.0;
+
+		setText(String.format(format, p99));
+	}
+
+	@Override
+	public void hibernate() {
+		timer.stop();
+	}
+
+	@Override
+	public void wake() {
+		if (isDisplayable()) {
+			refresh();
+			timer.start();
+		}
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		timer.start();
+	}
+
+	@Override
+	public void removeNotify() {
+		timer.stop();
+		super.removeNotify();
+	}
+
+}
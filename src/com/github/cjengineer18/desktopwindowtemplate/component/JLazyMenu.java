@@ -0,0 +1,218 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.component;
+
+import java.awt.event.ActionListener;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.SwingWorker;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
+
+import com.github.cjengineer18.desktopwindowtemplate.resources.constants.BundleConstants;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuMaterializer;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuNode;
+
+/**
+ * A menu whose items are built the first time it is opened, so a menu with
+ * hundreds of entries costs nothing until the user needs it. The items are
+ * produced by a loader and kept until {@code invalidateContent()} is invoked.
+ * The loader can run in background, while the menu shows a "loading" item.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.StandardMenuFactory#createLazyMenu(String,
+ *      ActionListener, Callable, boolean)
+ * 
+ * @author Cristian Jimenez
+ */
+public class JLazyMenu extends JMenu {
+
+	private static final long serialVersionUID = 43L;
+
+	private final transient Callable<List<MenuNode>> loader;
+	private final transient ActionListener listener;
+	private final boolean background;
+	private boolean loaded;
+	private transient SwingWorker<List<MenuNode>, Void> worker;
+
+	/**
+	 * Creates a menu loaded in the Event Dispatch Thread when it is opened.
+	 * 
+	 * @param label
+	 *            The menu's name.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * @param loader
+	 *            Produces the items of the menu. A {@code null} list fails
+	 *            the load, as an exception does.
+	 */
+	public JLazyMenu(String label, ActionListener listener, Callable<List<MenuNode>> loader) {
+		this(label, listener, loader, false);
+	}
+
+	/**
+	 * Creates a menu loaded when it is opened.
+	 * 
+	 * @param label
+	 *            The menu's name.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * @param loader
+	 *            Produces the items of the menu. A {@code null} list fails
+	 *            the load, as an exception does.
+	 * @param background
+	 *            If {@code true}, the loader runs in a background thread (so
+	 *            it must not touch any Swing component).
+	 */
+	public JLazyMenu(String label, ActionListener listener, Callable<List<MenuNode>> loader, boolean background) {
+		super(label);
+		this.loader = loader;
+		this.listener = listener;
+		this.background = background;
+		addMenuListener(new MenuListener() {
+
+			@Override
+			public void menuSelected(MenuEvent e) {
+				load();
+			}
+
+			@Override
+			public void menuDeselected(MenuEvent e) {
+				// Nothing
+			}
+
+			@Override
+			public void menuCanceled(MenuEvent e) {
+				// Nothing
+			}
+
+		});
+	}
+
+	/**
+	 * Checks if the items are loaded.
+	 * 
+	 * @return {@code true} if the menu was opened and its items are loaded.
+	 */
+	public final boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Drops the loaded items, so they are loaded again the next time the menu
+	 * is opened (because the recent files changed, for example).
+	 */
+	public final void invalidateContent() {
+		if (worker != null) {
+			worker.cancel(false);
+			worker = null;
+		}
+
+		loaded = false;
+		removeAll();
+	}
+
+	/*
+	 * Load the items, only the first time.
+	 */
+	private void load() {
+		if (loaded || (worker != null)) {
+			return;
+		}
+
+		if (background) {
+			JMenuItem loading = new JMenuItem(
+					ResourceBundle.getBundle(BundleConstants.PANELS_LOCALE).getString("loadingMessage"));
+
+			loading.setEnabled(false);
+			add(loading);
+			worker = new SwingWorker<List<MenuNode>, Void>() {
+
+				@Override
+				protected List<MenuNode> doInBackground() throws Exception {
+					return loader.call();
+				}
+
+				@Override
+				protected void done() {
+					if (worker == this) {
+						worker = null;
+
+						try {
+							fill(get());
+						} catch (ExecutionException ee) {
+							failed(ee.getCause());
+						} catch (InterruptedException ie) {
+							failed(ie);
+						}
+					}
+				}
+
+			};
+			worker.execute();
+		} else {
+			try {
+				fill(loader.call());
+			} catch (Exception exc) {
+				failed(exc);
+			}
+		}
+	}
+
+	/*
+	 * Replace the content with the loaded items and refresh the open popup.
+	 */
+	private void fill(List<MenuNode> items) {
+		if (items == null) {
+			failed(new NullPointerException("The menu loader returned null!"));
+			return;
+		}
+
+		removeAll();
+
+		for (MenuNode item : items) {
+			add(MenuMaterializer.createComponent(item, listener));
+		}
+
+		loaded = true;
+		MenuMaterializer.refreshEnabled(getPopupMenu());
+
+		if (isPopupMenuVisible()) {
+			getPopupMenu().pack();
+		}
+	}
+
+	/*
+	 * Leave the menu empty; it is loaded again the next time.
+	 */
+	private void failed(Throwable exc) {
+		removeAll();
+		Logger.getLogger(JLazyMenu.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+	}
+
+}
@@ -0,0 +1,156 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.async;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.github.cjengineer18.desktopwindowtemplate.util.monitor.InstrumentedEventQueue;
+
+/**
+ * A low priority queue of tasks for the Event Dispatch Thread. The tasks are
+ * run one by one, and only when the event queue is empty and there wasn't any
+ * key or mouse input for a while, so they never delay the user input.
+ * 
+ * @author Cristian Jimenez
+ */
+public final class IdleTaskQueue {
+
+	private static final int CHECK_INTERVAL = 50;
+	private static final long QUIET_PERIOD = TimeUnit.MILLISECONDS.toNanos(250L);
+	private static final IdleTaskQueue defaultQueue = new IdleTaskQueue();
+
+	private final ArrayDeque<Runnable> tasks;
+	private final Timer timer;
+	private long lastInput;
+
+	private IdleTaskQueue() {
+		tasks = new ArrayDeque<Runnable>();
+		lastInput = System.nanoTime() - QUIET_PERIOD;
+		Toolkit.getDefaultToolkit().addAWTEventListener(new AWTEventListener() {
+
+			@Override
+			public void eventDispatched(AWTEvent event) {
+				lastInput = System.nanoTime();
+			}
+
+		}, AWTEvent.KEY_EVENT_MASK | AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK
+				| AWTEvent.MOUSE_WHEEL_EVENT_MASK);
+		timer = new Timer(CHECK_INTERVAL, new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				runNext();
+			}
+
+		});
+	}
+
+	/**
+	 * Gets the idle queue.
+	 * 
+	 * @return The queue.
+	 */
+	public static IdleTaskQueue getDefault() {
+		return defaultQueue;
+	}
+
+	/**
+	 * Adds a task to the end of the queue. It can be invoked from any thread.
+	 * 
+	 * @param task
+	 *            The task, which will be run in the Event Dispatch Thread.
+	 */
+	public void submit(Runnable task) {
+		synchronized (tasks) {
+			tasks.addLast(task);
+		}
+
+		SwingUtilities.invokeLater(new Runnable() {
+
+			@Override
+			public void run() {
+				if (!timer.isRunning()) {
+					timer.start();
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Removes a task that hasn't run yet.
+	 * 
+	 * @param task
+	 *            The task to remove.
+	 * 
+	 * @return {@code true} if the task was in the queue.
+	 */
+	public boolean cancel(Runnable task) {
+		synchronized (tasks) {
+			return tasks.remove(task);
+		}
+	}
+
+	/*
+	 * Run the next task if the event queue is empty and the user didn't type
+	 * or move the mouse lately. The timer's own event is being dispatched now,
+	 * so any other event means the EDT is busy. Once a queue is pushed, the
+	 * events are posted to it, not to the system queue.
+	 */
+	private void runNext() {
+		InstrumentedEventQueue instrumented = InstrumentedEventQueue.getInstalled();
+		EventQueue queue = (instrumented != null) ? instrumented : Toolkit.getDefaultToolkit().getSystemEventQueue();
+		Runnable task;
+
+		if ((queue.peekEvent() != null) || ((System.nanoTime() - lastInput) < QUIET_PERIOD)) {
+			return;
+		}
+
+		synchronized (tasks) {
+			task = tasks.pollFirst();
+
+			if (task == null) {
+				timer.stop();
+				return;
+			}
+		}
+
+		try {
+			task.run();
+		} catch (RuntimeException exc) {
+			Logger.getLogger(IdleTaskQueue.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.async;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+/**
+ * Loads the {@link StagedSection}s of a window. Every section is prepared in
+ * its own {@code SwingWorker} as soon as it is added, and the prepared sections
+ * are attached in the Event Dispatch Thread in small time slices, so the EDT
+ * keeps responding while a large window is being built. The sections are only
+ * attached after {@code start()}, usually when the skeleton of the window is
+ * already visible.
+ * 
+ * @author Cristian Jimenez
+ * 
+ * @see SwingWorker
+ */
+public final class StagedLoader {
+
+	private final JComponent root;
+	private final long slice;
+	private final ArrayDeque<Runnable> ready;
+	private boolean started;
+	private boolean scheduled;
+
+	/**
+	 * Creates a new loader.
+	 * 
+	 * @param root
+	 *            The component revalidated after each time slice (usually, the
+	 *            window's root pane).
+	 * @param slice
+	 *            The maximum time, in milliseconds, to attach sections before
+	 *            giving the EDT back to the other events.
+	 */
+	public StagedLoader(JComponent root, long slice) {
+		this.root = root;
+		this.slice = TimeUnit.MILLISECONDS.toNanos(slice);
+		this.ready = new ArrayDeque<Runnable>();
+	}
+
+	/**
+	 * Starts preparing a section in background. Must be invoked in the Event
+	 * Dispatch Thread.
+	 * 
+	 * @param <Prepared>
+	 *            The class of the prepared data.
+	 * @param section
+	 *            The section to load.
+	 */
+	public <Prepared> void load(final StagedSection<Prepared> section) {
+		new SwingWorker<Prepared, Void>() {
+
+			@Override
+			protected Prepared doInBackground() throws Exception {
+				return section.prepare();
+			}
+
+			@Override
+			protected void done() {
+				final SwingWorker<Prepared, Void> worker = this;
+
+				enqueue(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							section.attach(worker.get());
+						} catch (ExecutionException ee) {
+							section.failed((ee.getCause() instanceof Exception) ? (Exception) ee.getCause() : ee);
+						} catch (Exception exc) {
+							section.failed(exc);
+						}
+					}
+
+				});
+			}
+
+		}.execute();
+	}
+
+	/**
+	 * Allows the prepared sections to be attached. Must be invoked in the
+	 * Event Dispatch Thread.
+	 */
+	public void start() {
+		started = true;
+		schedule();
+	}
+
+	/*
+	 * Add a prepared section to attach. Always in the EDT.
+	 */
+	private void enqueue(Runnable attach) {
+		ready.addLast(attach);
+		schedule();
+	}
+
+	private void schedule() {
+		if (started && !scheduled && !ready.isEmpty()) {
+			scheduled = true;
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					attachSlice();
+				}
+
+			});
+		}
+	}
+
+	/*
+	 * Attach sections until the time slice is over, then revalidate once. The
+	 * rest of the sections wait for the next slice, after the pending events.
+	 * A section that fails (even in its failed() method) doesn't stop the
+	 * others.
+	 */
+	private void attachSlice() {
+		long start = System.nanoTime();
+
+		scheduled = false;
+
+		try {
+			do {
+				try {
+					ready.pollFirst().run();
+				} catch (RuntimeException exc) {
+					Logger.getLogger(StagedLoader.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+				}
+			} while (!ready.isEmpty() && ((System.nanoTime() - start) < slice));
+		} finally {
+			root.revalidate();
+			root.repaint();
+			schedule();
+		}
+	}
+
+}
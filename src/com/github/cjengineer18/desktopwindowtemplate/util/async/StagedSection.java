@@ -0,0 +1,79 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.async;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An expensive section of a window that is loaded after the window is shown.
+ * The data (models, images...) is prepared in a background thread and then the
+ * section is attached to the window in the Event Dispatch Thread.
+ * 
+ * @author Cristian Jimenez
+ * 
+ * @param <Prepared>
+ *            The class of the prepared data.
+ * 
+ * @see StagedLoader
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#loadStaged(StagedSection)
+ */
+public abstract class StagedSection<Prepared> {
+
+	/**
+	 * Prepares the section data. This method is invoked in a background
+	 * thread, so it must not touch any Swing component.
+	 * 
+	 * @return The prepared data.
+	 * 
+	 * @throws Exception
+	 *             If any error.
+	 */
+	protected abstract Prepared prepare() throws Exception;
+
+	/**
+	 * Attaches the section to the window, with the prepared data. This method
+	 * is invoked in the Event Dispatch Thread and must be short: the window is
+	 * revalidated once for all the sections attached in the same time slice.
+	 * 
+	 * @param prepared
+	 *            The data returned by {@code prepare()}.
+	 * 
+	 * @throws Exception
+	 *             If any error.
+	 */
+	protected abstract void attach(Prepared prepared) throws Exception;
+
+	/**
+	 * This method is invoked, in the Event Dispatch Thread, when
+	 * {@code prepare()} or {@code attach(Prepared)} fail. By default, the error
+	 * is logged, but can be override (to show an error placeholder, for
+	 * example).
+	 * 
+	 * @param exc
+	 *            The error.
+	 */
+	protected void failed(Exception exc) {
+		Logger.getLogger(StagedSection.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+	}
+
+}
@@ -0,0 +1,301 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.event;
+
+import java.awt.event.WindowEvent;
+import java.awt.event.WindowListener;
+import java.awt.event.WindowStateListener;
+import java.lang.ref.WeakReference;
+import java.util.EventListener;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A registry of window listeners. It is added once to the window, as a
+ * {@code WindowListener} and a {@code WindowStateListener}, and delivers every
+ * event to the registered listeners, which can be added and removed at any
+ * time.
+ * <p>
+ * A listener can be registered with these flags:
+ * <ul>
+ * <li>{@code WEAK}: the registry only keeps a weak reference, so it doesn't
+ * keep alive the object which owns the listener. That object must keep a
+ * strong reference to the listener while it must be notified.</li>
+ * <li>{@code ASYNC}: the listener is notified outside the Event Dispatch
+ * Thread, in a single background thread, so the events are delivered in the
+ * same order as they happened. Such a listener must not touch the Swing
+ * components directly.</li>
+ * </ul>
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#enableListeners()
+ * 
+ * @author Cristian Jimenez
+ */
+public final class WindowListenerRegistry implements WindowListener, WindowStateListener {
+
+	/** Register the listener strongly and notify it in the EDT. */
+	public static final int DEFAULT = 0;
+
+	/** Keep only a weak reference to the listener. */
+	public static final int WEAK = 1;
+
+	/** Notify the listener in the background, in order. */
+	public static final int ASYNC = 2;
+
+	private static ExecutorService asyncDispatcher;
+
+	private final CopyOnWriteArrayList<Registration> registrations;
+
+	/** Creates an empty registry. */
+	public WindowListenerRegistry() {
+		registrations = new CopyOnWriteArrayList<Registration>();
+	}
+
+	/**
+	 * Registers a window listener.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 * @param flags
+	 *            {@code DEFAULT}, or any combination of {@code WEAK} and
+	 *            {@code ASYNC}.
+	 */
+	public void add(WindowListener listener, int flags) {
+		registrations.add(new Registration(listener, false, flags));
+	}
+
+	/**
+	 * Registers a window state listener.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 * @param flags
+	 *            {@code DEFAULT}, or any combination of {@code WEAK} and
+	 *            {@code ASYNC}.
+	 */
+	public void add(WindowStateListener listener, int flags) {
+		registrations.add(new Registration(listener, true, flags));
+	}
+
+	/**
+	 * Removes all the registrations of a listener.
+	 * 
+	 * @param listener
+	 *            The listener to remove.
+	 * 
+	 * @return {@code true} if the listener was registered.
+	 */
+	public boolean remove(EventListener listener) {
+		boolean removed = false;
+
+		for (Registration registration : registrations) {
+			if (registration.get() == listener) {
+				removed |= registrations.remove(registration);
+			}
+		}
+
+		return removed;
+	}
+
+	/** Removes all the listeners. */
+	public void clear() {
+		registrations.clear();
+	}
+
+	/**
+	 * Gets the number of registered listeners, excluding the weak listeners
+	 * already collected.
+	 * 
+	 * @return The number of listeners.
+	 */
+	public int size() {
+		int size = 0;
+
+		for (Registration registration : registrations) {
+			if (registration.get() != null) {
+				size++;
+			}
+		}
+
+		return size;
+	}
+
+	@Override
+	public void windowOpened(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowClosing(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowClosed(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowIconified(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowDeiconified(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowActivated(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowDeactivated(WindowEvent e) {
+		dispatch(e, false);
+	}
+
+	@Override
+	public void windowStateChanged(WindowEvent e) {
+		dispatch(e, true);
+	}
+
+	/*
+	 * Deliver the event to the listeners of its kind, dropping the weak
+	 * listeners already collected.
+	 */
+	private void dispatch(final WindowEvent e, boolean stateEvent) {
+		for (final Registration registration : registrations) {
+			final EventListener listener = registration.get();
+
+			if (listener == null) {
+				registrations.remove(registration);
+			} else if (registration.stateListener == stateEvent) {
+				if (registration.async) {
+					getAsyncDispatcher().execute(new Runnable() {
+
+						@Override
+						public void run() {
+							deliver(listener, e);
+						}
+
+					});
+				} else {
+					deliver(listener, e);
+				}
+			}
+		}
+	}
+
+	private static void deliver(EventListener listener, WindowEvent e) {
+		try {
+			if (e.getID() == WindowEvent.WINDOW_STATE_CHANGED) {
+				((WindowStateListener) listener).windowStateChanged(e);
+			} else {
+				WindowListener wl = (WindowListener) listener;
+
+				switch (e.getID()) {
+				case WindowEvent.WINDOW_OPENED:
+					wl.windowOpened(e);
+					break;
+				case WindowEvent.WINDOW_CLOSING:
+					wl.windowClosing(e);
+					break;
+				case WindowEvent.WINDOW_CLOSED:
+					wl.windowClosed(e);
+					break;
+				case WindowEvent.WINDOW_ICONIFIED:
+					wl.windowIconified(e);
+					break;
+				case WindowEvent.WINDOW_DEICONIFIED:
+					wl.windowDeiconified(e);
+					break;
+				case WindowEvent.WINDOW_ACTIVATED:
+					wl.windowActivated(e);
+					break;
+				case WindowEvent.WINDOW_DEACTIVATED:
+					wl.windowDeactivated(e);
+					break;
+				default:
+					break;
+				}
+			}
+		} catch (RuntimeException exc) {
+			Logger.getLogger(WindowListenerRegistry.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+		}
+	}
+
+	/*
+	 * One thread for all the asynchronous listeners, so the events keep their
+	 * order.
+	 */
+	private static synchronized ExecutorService getAsyncDispatcher() {
+		if (asyncDispatcher == null) {
+			asyncDispatcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Window Listener Dispatcher");
+					thread.setDaemon(true);
+					return thread;
+				}
+
+			});
+		}
+
+		return asyncDispatcher;
+	}
+
+	/*
+	 * A registered listener, strong or weak.
+	 */
+	private static final class Registration {
+
+		private final EventListener strong;
+		private final WeakReference<EventListener> weak;
+		private final boolean stateListener;
+		private final boolean async;
+
+		private Registration(EventListener listener, boolean stateListener, int flags) {
+			if ((flags & WEAK) != 0) {
+				this.strong = null;
+				this.weak = new WeakReference<EventListener>(listener);
+			} else {
+				this.strong = listener;
+				this.weak = null;
+			}
+
+			this.stateListener = stateListener;
+			this.async = (flags & ASYNC) != 0;
+		}
+
+		private EventListener get() {
+			return (weak != null) ? weak.get() : strong;
+		}
+
+	}
+
+}
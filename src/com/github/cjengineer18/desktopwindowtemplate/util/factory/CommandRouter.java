@@ -0,0 +1,359 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.factory;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.AbstractButton;
+import javax.swing.JMenu;
+import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * Routes the action commands of menus, popups and buttons to their handlers
+ * with a single hash lookup, instead of a long chain of {@code if/else} over
+ * {@code getActionCommand()}. Use it as the listener of the factories (with
+ * the {@code commands} arrays or the menu models), and register one handler per
+ * command.
+ * <p>
+ * Every command can be disabled (the bound buttons and items are disabled too,
+ * and the command is ignored) and can be dispatched to an executor instead of
+ * the Event Dispatch Thread. The handlers can be registered and the commands
+ * enabled from any thread, before or after the buttons are bound: the bound
+ * buttons and the state of a command are kept apart from its handler.
+ * 
+ * @see StandardMenuFactory#createMenu(String, ActionListener, Object[], String[])
+ * @see PopupMenuFactory#createPopupMenu(ActionListener, Object[], String[])
+ * 
+ * @author Cristian Jimenez
+ */
+public class CommandRouter implements ActionListener {
+
+	private final ConcurrentHashMap<String, Route> routes;
+	private volatile ActionListener fallback;
+
+	/** Creates an empty router. */
+	public CommandRouter() {
+		routes = new ConcurrentHashMap<String, Route>();
+	}
+
+	/**
+	 * Registers the handler of a command, run in the Event Dispatch Thread.
+	 * 
+	 * @param command
+	 *            The action command.
+	 * @param handler
+	 *            The handler.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code command} or {@code handler} are {@code null}.
+	 */
+	public void register(String command, ActionListener handler) throws InvalidParameterException {
+		register(command, handler, null);
+	}
+
+	/**
+	 * Registers the handler of a command, run by an executor. The handler
+	 * must not touch any Swing component when the executor isn't the Event
+	 * Dispatch Thread.
+	 * 
+	 * @param command
+	 *            The action command.
+	 * @param handler
+	 *            The handler.
+	 * @param executor
+	 *            Runs the handler, or {@code null} to run it in the Event
+	 *            Dispatch Thread.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code command} or {@code handler} are {@code null}.
+	 */
+	public void register(String command, ActionListener handler, Executor executor)
+			throws InvalidParameterException {
+		if ((command == null) || (handler == null)) {
+			throw new InvalidParameterException(new NullPointerException());
+		}
+
+		// A new handler for the same command keeps its state and buttons
+		routeOf(command).handler = new Handler(handler, executor);
+	}
+
+	/**
+	 * Removes the handler of a command. Its state and bound buttons are kept
+	 * for the next handler.
+	 * 
+	 * @param command
+	 *            The action command.
+	 */
+	public void unregister(String command) {
+		Route route = routes.get(command);
+
+		if (route != null) {
+			route.handler = null;
+		}
+	}
+
+	/**
+	 * Sets the listener of the commands without a handler.
+	 * 
+	 * @param fallback
+	 *            The listener, or {@code null} to ignore those commands.
+	 */
+	public void setFallback(ActionListener fallback) {
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Checks if a command has a handler.
+	 * 
+	 * @param command
+	 *            The action command.
+	 * 
+	 * @return {@code true} if the command is registered.
+	 */
+	public boolean isRegistered(String command) {
+		Route route = routes.get(command);
+
+		return (route != null) && (route.handler != null);
+	}
+
+	/**
+	 * Checks if a command is enabled.
+	 * 
+	 * @param command
+	 *            The action command.
+	 * 
+	 * @return {@code true} if the command is registered and enabled.
+	 */
+	public boolean isEnabled(String command) {
+		Route route = routes.get(command);
+
+		return (route != null) && (route.handler != null) && route.enabled;
+	}
+
+	/**
+	 * Enables or disables a command, and its bound buttons and items. A
+	 * disabled command is ignored. The state is kept even if the command isn't
+	 * registered yet.
+	 * 
+	 * @param command
+	 *            The action command.
+	 * @param enabled
+	 *            The new state.
+	 */
+	public void setEnabled(String command, final boolean enabled) {
+		final Route route = routeOf(command);
+
+		if (route.enabled != enabled) {
+			route.enabled = enabled;
+
+			if (SwingUtilities.isEventDispatchThread()) {
+				route.updateButtons();
+			} else {
+				SwingUtilities.invokeLater(new Runnable() {
+
+					@Override
+					public void run() {
+						route.updateButtons();
+					}
+
+				});
+			}
+		}
+	}
+
+	/**
+	 * Makes this router the listener of some buttons or items, and keeps their
+	 * enabled state in sync with their commands, even the ones registered
+	 * later. Must be invoked in the Event Dispatch Thread.
+	 * 
+	 * @param buttons
+	 *            The buttons or items.
+	 */
+	public void bind(AbstractButton... buttons) {
+		for (AbstractButton button : buttons) {
+			String command = button.getActionCommand();
+
+			button.removeActionListener(this);
+			button.addActionListener(this);
+
+			if (command != null) {
+				Route route = routeOf(command);
+
+				route.buttons.add(new WeakReference<AbstractButton>(button));
+				button.setEnabled(route.enabled);
+			}
+		}
+	}
+
+	/**
+	 * Binds all the items of a menu, including the sub-menus.
+	 * 
+	 * @param menu
+	 *            The menu.
+	 * 
+	 * @see #bind(AbstractButton...)
+	 */
+	public void bind(JMenu menu) {
+		bind(menu.getPopupMenu());
+	}
+
+	/**
+	 * Binds all the items of a popup menu, including the sub-menus.
+	 * 
+	 * @param popup
+	 *            The popup menu.
+	 * 
+	 * @see #bind(AbstractButton...)
+	 */
+	public void bind(JPopupMenu popup) {
+		for (Component component : popup.getComponents()) {
+			if (component instanceof JMenu) {
+				bind((JMenu) component);
+			} else if (component instanceof AbstractButton) {
+				bind((AbstractButton) component);
+			}
+		}
+	}
+
+	/**
+	 * Dispatches a command to its handler.
+	 * 
+	 * @param e
+	 *            The action event.
+	 */
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		Route route = (e.getActionCommand() != null) ? routes.get(e.getActionCommand()) : null;
+		final Handler handler = (route != null) ? route.handler : null;
+
+		if (handler == null) {
+			ActionListener listener = fallback;
+
+			if (listener != null) {
+				listener.actionPerformed(e);
+			}
+		} else if (route.enabled) {
+			if (handler.executor != null) {
+				handler.executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						handler.handle(e);
+					}
+
+				});
+			} else {
+				handler.handle(e);
+			}
+		}
+	}
+
+	/*
+	 * The route of a command, created the first time the command is
+	 * registered, bound or enabled.
+	 */
+	private Route routeOf(String command) {
+		Route route = routes.get(command);
+
+		if (route == null) {
+			Route created = new Route();
+
+			route = routes.putIfAbsent(command, created);
+
+			if (route == null) {
+				route = created;
+			}
+		}
+
+		return route;
+	}
+
+	/*
+	 * The handler of a command, and the executor that runs it.
+	 */
+	private static final class Handler {
+
+		private final ActionListener listener;
+		private final Executor executor;
+
+		private Handler(ActionListener listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		private void handle(ActionEvent e) {
+			try {
+				listener.actionPerformed(e);
+			} catch (RuntimeException exc) {
+				Logger.getLogger(CommandRouter.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+			}
+		}
+
+	}
+
+	/*
+	 * The handler of a command (null while it isn't registered), its state
+	 * and its bound buttons.
+	 */
+	private static final class Route {
+
+		private final List<WeakReference<AbstractButton>> buttons;
+		private volatile Handler handler;
+		private volatile boolean enabled;
+
+		private Route() {
+			// Iterated in the EDT while a button can be bound
+			this.buttons = new CopyOnWriteArrayList<WeakReference<AbstractButton>>();
+			this.enabled = true;
+		}
+
+		/*
+		 * Always in the EDT, like the buttons. The collected buttons are
+		 * dropped from the list.
+		 */
+		private void updateButtons() {
+			for (WeakReference<AbstractButton> reference : buttons) {
+				AbstractButton button = reference.get();
+
+				if (button == null) {
+					buttons.remove(reference);
+				} else {
+					button.setEnabled(enabled);
+				}
+			}
+		}
+
+	}
+
+}
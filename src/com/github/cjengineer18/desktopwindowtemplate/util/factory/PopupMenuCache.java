@@ -0,0 +1,247 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.factory;
+
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.swing.JPopupMenu;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * A cache of popup menus, so a menu is built once per invoker (or any other
+ * key) instead of on every right click. Before a cached menu is returned, only
+ * its dynamic parts are refreshed by its {@link PopupRefresher}. The cache
+ * keeps at most {@code maxSize} menus, and drops the least recently used one
+ * when it is full.
+ * <p>
+ * When the key is a component, its menu is dropped as soon as the component
+ * isn't displayable (it was removed from its window, or its window was
+ * disposed), so the cache doesn't keep closed windows alive through the
+ * invokers of their menus.
+ * <p>
+ * The cache must be used in the Event Dispatch Thread.
+ * 
+ * @see PopupMenuFactory
+ * 
+ * @author Cristian Jimenez
+ */
+public final class PopupMenuCache {
+
+	private final LinkedHashMap<Object, JPopupMenu> popups;
+	private final HierarchyListener invokerListener;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Creates a cache.
+	 * 
+	 * @param maxSize
+	 *            The maximum number of menus in the cache.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code maxSize} isn't positive.
+	 */
+	public PopupMenuCache(final int maxSize) throws InvalidParameterException {
+		if (maxSize <= 0) {
+			throw new InvalidParameterException("The cache size must be positive!");
+		}
+
+		popups = new LinkedHashMap<Object, JPopupMenu>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, JPopupMenu> eldest) {
+				boolean full = size() > maxSize;
+
+				if (full) {
+					unwatch(eldest.getKey());
+				}
+
+				return full;
+			}
+
+		};
+		invokerListener = new HierarchyListener() {
+
+			@Override
+			public void hierarchyChanged(HierarchyEvent e) {
+				if (((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0)
+						&& !e.getComponent().isDisplayable()) {
+					invalidate(e.getComponent());
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the popup menu of a key, building it only if it isn't cached.
+	 * 
+	 * @param key
+	 *            The key (usually, the invoker).
+	 * @param factory
+	 *            Builds the menu (usually, with {@code PopupMenuFactory}).
+	 * 
+	 * @return The popup menu.
+	 * 
+	 * @throws Exception
+	 *             If {@code factory} fails.
+	 */
+	public JPopupMenu get(Object key, Callable<JPopupMenu> factory) throws Exception {
+		return get(key, factory, null, null);
+	}
+
+	/**
+	 * Gets the popup menu of a key, building it only if it isn't cached, and
+	 * refreshes it for the given context.
+	 * 
+	 * @param key
+	 *            The key (usually, the invoker).
+	 * @param factory
+	 *            Builds the menu (usually, with {@code PopupMenuFactory}).
+	 * @param refresher
+	 *            Refreshes the dynamic parts of the menu this time, or
+	 *            {@code null}. It isn't kept with the menu.
+	 * @param context
+	 *            The context passed to {@code refresher}.
+	 * 
+	 * @return The popup menu, ready to show.
+	 * 
+	 * @throws Exception
+	 *             If {@code factory} fails.
+	 */
+	public JPopupMenu get(Object key, Callable<JPopupMenu> factory, PopupRefresher refresher, Object context)
+			throws Exception {
+		JPopupMenu popup = popups.get(key);
+
+		if (popup == null) {
+			popup = factory.call();
+			popups.put(key, popup);
+			watch(key);
+			misses++;
+		} else {
+			hits++;
+		}
+
+		if (refresher != null) {
+			refresher.refresh(popup, context);
+		}
+
+		return popup;
+	}
+
+	/**
+	 * Gets (or builds) the popup menu of an invoker, refreshes it and shows
+	 * it.
+	 * 
+	 * @param invoker
+	 *            The component where the menu is shown, also used as key.
+	 * @param x
+	 *            The x coordinate in the invoker.
+	 * @param y
+	 *            The y coordinate in the invoker.
+	 * @param factory
+	 *            Builds the menu.
+	 * @param refresher
+	 *            Refreshes the dynamic parts of the menu, or {@code null}.
+	 * @param context
+	 *            The context passed to {@code refresher}.
+	 * 
+	 * @throws Exception
+	 *             If {@code factory} fails.
+	 */
+	public void show(Component invoker, int x, int y, Callable<JPopupMenu> factory, PopupRefresher refresher,
+			Object context) throws Exception {
+		get(invoker, factory, refresher, context).show(invoker, x, y);
+	}
+
+	/**
+	 * Drops the menu of a key, so it is built again the next time.
+	 * 
+	 * @param key
+	 *            The key.
+	 */
+	public void invalidate(Object key) {
+		if (popups.remove(key) != null) {
+			unwatch(key);
+		}
+	}
+
+	/** Drops all the menus. */
+	public void clear() {
+		for (Object key : popups.keySet()) {
+			unwatch(key);
+		}
+
+		popups.clear();
+	}
+
+	/**
+	 * Gets the number of cached menus.
+	 * 
+	 * @return The number of menus.
+	 */
+	public int size() {
+		return popups.size();
+	}
+
+	/**
+	 * Gets how many times a cached menu was reused.
+	 * 
+	 * @return The number of hits.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets how many times a menu was built.
+	 * 
+	 * @return The number of misses.
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/*
+	 * Drop the menu of a component key when the component leaves its window.
+	 */
+	private void watch(Object key) {
+		if (key instanceof Component) {
+			((Component) key).addHierarchyListener(invokerListener);
+		}
+	}
+
+	private void unwatch(Object key) {
+		if (key instanceof Component) {
+			((Component) key).removeHierarchyListener(invokerListener);
+		}
+	}
+
+}
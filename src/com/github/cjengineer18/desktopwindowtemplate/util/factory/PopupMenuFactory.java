@@ -28,9 +28,13 @@ import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 
 import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuMaterializer;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuNode;
 
 /**
- * Factory to create popup menus.
+ * Factory to create popup menus. To avoid building the same menu on every
+ * right click, keep the built menus in a {@link PopupMenuCache}. For lists of
+ * thousands of entries, use {@link VirtualPopupMenuFactory}.
  * 
  * @author Cristian Jimenez
  */
@@ -151,6 +155,30 @@ public abstract class PopupMenuFactory {
 		return jpm;
 	}
 
+	/**
+	 * Create a context menu with the children of a model built once with
+	 * {@link MenuNode}. The menu can be updated later with
+	 * {@code MenuMaterializer.update(JPopupMenu, MenuNode, ActionListener)}
+	 * instead of being built again.
+	 * 
+	 * @param model
+	 *            The menu model.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * 
+	 * @return A {@link JPopupMenu} with all the items of the model.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code model} is {@code null} or isn't a menu.
+	 * 
+	 * @see MenuNode#menu(String)
+	 * @see MenuMaterializer
+	 */
+	public static JPopupMenu createPopupMenu(MenuNode model, ActionListener listener)
+			throws InvalidParameterException {
+		return MenuMaterializer.createPopupMenu(model, listener);
+	}
+
 	/*
 	 * Check if the content isn't a menu or a separator.
 	 */
@@ -22,11 +22,20 @@
 package com.github.cjengineer18.desktopwindowtemplate.util.factory;
 
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
 
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 
+import com.github.cjengineer18.desktopwindowtemplate.component.JLazyMenu;
 import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuDefinitionLoader;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuLocalizer;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuMaterializer;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.MenuNode;
 
 /**
  * Factory for menus, either for a menu bar or for a sub-menu.
@@ -156,6 +165,138 @@ public abstract class StandardMenuFactory {
 		}
 	}
 
+	/**
+	 * Create a menu whose texts come from a resource bundle. The menu and its
+	 * items keep their keys, so they can be relabeled in place when the locale
+	 * changes. The command of each item is its key, whatever the language.
+	 * 
+	 * @param baseName
+	 *            The base name of the bundle.
+	 * @param locale
+	 *            The locale of the texts.
+	 * @param labelKey
+	 *            The key of the menu's name.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * @param keys
+	 *            The keys of the items to add, or {@link #SEPARATOR}.
+	 * 
+	 * @return A {@link JMenu} with all the items added and with the listener
+	 *         implemented.
+	 * 
+	 * @throws InvalidParameterException
+	 *             In case any of the parameters is null, or the bundle or a
+	 *             key don't exist.
+	 * 
+	 * @see MenuLocalizer
+	 */
+	public static JMenu createLocalizedMenu(String baseName, Locale locale, String labelKey, ActionListener listener,
+			String... keys) throws InvalidParameterException {
+		try {
+			JMenu jm = new JMenu();
+			JMenuItem jmi;
+			MenuLocalizer.localize(jm, baseName, labelKey, locale);
+			for (String key : keys) {
+				if (key.equals(SEPARATOR))
+					jm.addSeparator();
+				else {
+					jmi = new JMenuItem();
+					MenuLocalizer.localize(jmi, baseName, key, locale);
+					jmi.addActionListener(listener);
+					jm.add(jmi);
+				}
+			}
+			return jm;
+		} catch (NullPointerException npe) {
+			throw new InvalidParameterException(npe);
+		}
+	}
+
+	/**
+	 * Create a menu from a model built once with {@link MenuNode}. The model
+	 * is already validated, so this only builds the Swing components, and the
+	 * menu can be updated later with {@code MenuMaterializer.update(JMenu,
+	 * MenuNode, ActionListener)} instead of being built again.
+	 * 
+	 * @param model
+	 *            The menu model.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * 
+	 * @return A {@link JMenu} with all the items of the model.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code model} is {@code null} or isn't a menu.
+	 * 
+	 * @see MenuNode#menu(String)
+	 * @see MenuMaterializer
+	 */
+	public static JMenu createMenu(MenuNode model, ActionListener listener) throws InvalidParameterException {
+		return MenuMaterializer.createMenu(model, listener);
+	}
+
+	/**
+	 * Create the menus defined in a resource file. The file is parsed only the
+	 * first time, and the models are reused after that.
+	 * 
+	 * @param resource
+	 *            The resource path in the class path.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * 
+	 * @return The menus of the menu bar, ready for
+	 *         {@code insertMainMenuBar(JMenu...)}.
+	 * 
+	 * @throws IOException
+	 *             If the resource can't be read.
+	 * @throws InvalidParameterException
+	 *             If {@code resource} is {@code null} or the definition isn't
+	 *             valid.
+	 * 
+	 * @see MenuDefinitionLoader
+	 */
+	public static JMenu[] createMenus(String resource, ActionListener listener)
+			throws IOException, InvalidParameterException {
+		List<MenuNode> models = MenuDefinitionLoader.load(resource);
+		JMenu[] menus = new JMenu[models.size()];
+
+		for (int i = 0; i < menus.length; i++) {
+			menus[i] = MenuMaterializer.createMenu(models.get(i), listener);
+		}
+
+		return menus;
+	}
+
+	/**
+	 * Create a menu whose items are built the first time it is opened. Use it
+	 * for big menus ("Tools", "Recent"...), which then cost nothing during the
+	 * window startup.
+	 * 
+	 * @param label
+	 *            The menu's name.
+	 * @param listener
+	 *            The object that will listen to the menu items.
+	 * @param loader
+	 *            Produces the items of the menu.
+	 * @param background
+	 *            If {@code true}, {@code loader} runs in a background thread.
+	 * 
+	 * @return The menu, still empty.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code label} or {@code loader} are {@code null}.
+	 * 
+	 * @see JLazyMenu
+	 */
+	public static JLazyMenu createLazyMenu(String label, ActionListener listener, Callable<List<MenuNode>> loader,
+			boolean background) throws InvalidParameterException {
+		if ((label == null) || (loader == null)) {
+			throw new InvalidParameterException(new NullPointerException());
+		}
+
+		return new JLazyMenu(label, listener, loader, background);
+	}
+
 	// Tests the content.
 	private static boolean testContent(Object obj) {
 		return (!((obj instanceof JMenu) || obj.toString().equals(SEPARATOR)));
@@ -0,0 +1,311 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.factory;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.KeyStroke;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListModel;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+import com.github.cjengineer18.desktopwindowtemplate.util.menu.CompactMenuModel;
+
+/**
+ * Factory to create popup menus for very long lists (recent files, thousands
+ * of entities...). Instead of one {@link JMenuItem} per entry, the menu holds
+ * a scrollable list over a {@link ListModel}, with a fixed row size, so only
+ * the visible rows are rendered, whatever the size of the model.
+ * <p>
+ * The menu works with the keyboard: the arrows, {@code Page Up},
+ * {@code Page Down}, {@code Home} and {@code End} move the selection, typing
+ * the first letters of an entry selects it, {@code Enter} chooses the selected
+ * entry and {@code Escape} closes the menu. Like the menus of
+ * {@link PopupMenuFactory}, choosing an entry closes the menu and sends an
+ * {@code ActionEvent} to the listener, whose command is the text of the entry,
+ * or its command if the commands are given. The source of the event is the
+ * list, so its selected index is the index of the chosen entry.
+ * <p>
+ * For menus of thousands of static items, use a {@link CompactMenuModel}: its
+ * entries take a fraction of the memory of menu items, its disabled entries
+ * can't be chosen and its commands are used.
+ * 
+ * @see PopupMenuFactory
+ * 
+ * @author Cristian Jimenez
+ */
+public abstract class VirtualPopupMenuFactory {
+
+	/** The number of visible rows by default. */
+	public static final int DEFAULT_VISIBLE_ROWS = 20;
+
+	/** The number of entries measured to get the width of the rows. */
+	private static final int MEASURED_ROWS = 100;
+
+	/**
+	 * Create a popup menu over a model, with {@link #DEFAULT_VISIBLE_ROWS}
+	 * visible rows. The command of each entry is its text.
+	 * 
+	 * @param <E>
+	 *            The class of the entries.
+	 * @param listener
+	 *            The object that will listen to the chosen entries.
+	 * @param content
+	 *            The entries.
+	 * 
+	 * @return A {@link JPopupMenu} with the list of the entries.
+	 * 
+	 * @throws InvalidParameterException
+	 *             In case any of the parameters is null.
+	 */
+	public static <E> JPopupMenu createPopupMenu(ActionListener listener, ListModel<E> content)
+			throws InvalidParameterException {
+		return createPopupMenu(listener, content, null, DEFAULT_VISIBLE_ROWS);
+	}
+
+	/**
+	 * Create a popup menu over a model.
+	 * 
+	 * @param <E>
+	 *            The class of the entries.
+	 * @param listener
+	 *            The object that will listen to the chosen entries.
+	 * @param content
+	 *            The entries.
+	 * @param commands
+	 *            The command of each entry, or {@code null} to use the texts
+	 *            of the entries.
+	 * @param visibleRows
+	 *            The maximum number of visible rows.
+	 * 
+	 * @return A {@link JPopupMenu} with the list of the entries.
+	 * 
+	 * @throws InvalidParameterException
+	 *             In case {@code listener} or {@code content} are null,
+	 *             {@code visibleRows} isn't positive or there are less
+	 *             commands than entries.
+	 */
+	public static <E> JPopupMenu createPopupMenu(final ActionListener listener, ListModel<E> content,
+			final String[] commands, int visibleRows) throws InvalidParameterException {
+		final JPopupMenu menu = new JPopupMenu();
+		final JList<E> list;
+		JScrollPane scroll;
+
+		if (listener == null) {
+			throw new InvalidParameterException(new NullPointerException("listener"));
+		} else if (content == null) {
+			throw new InvalidParameterException(new NullPointerException("content"));
+		} else if (visibleRows <= 0) {
+			throw new InvalidParameterException("The number of visible rows must be positive!");
+		} else if ((commands != null) && (commands.length < content.getSize())) {
+			throw new InvalidParameterException("There are less commands than entries!");
+		}
+
+		list = new JList<E>(content);
+		scroll = new JScrollPane(list, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+				JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+		if (content instanceof CompactMenuModel) {
+			list.setCellRenderer(CompactMenuModel.getRenderer());
+		}
+
+		list.setVisibleRowCount(Math.max(1, Math.min(visibleRows, content.getSize())));
+		setMenuColors(list);
+		setFixedCellSize(list);
+		scroll.setBorder(null);
+		menu.add(scroll);
+
+		list.addMouseMotionListener(new MouseAdapter() {
+
+			@Override
+			public void mouseMoved(MouseEvent e) {
+				int index = list.locationToIndex(e.getPoint());
+
+				if ((index >= 0) && (index != list.getSelectedIndex())) {
+					list.setSelectedIndex(index);
+				}
+			}
+
+		});
+		list.addMouseListener(new MouseAdapter() {
+
+			@Override
+			public void mouseReleased(MouseEvent e) {
+				if (SwingUtilities.isLeftMouseButton(e) && (list.locationToIndex(e.getPoint()) >= 0)) {
+					choose(menu, list, listener, commands);
+				}
+			}
+
+		});
+		bindKey(list, KeyEvent.VK_ENTER, "choose", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				choose(menu, list, listener, commands);
+			}
+
+		});
+		bindKey(list, KeyEvent.VK_ESCAPE, "close", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				menu.setVisible(false);
+			}
+
+		});
+		menu.addPopupMenuListener(new PopupMenuListener() {
+
+			@Override
+			public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+				if (list.getModel().getSize() > 0) {
+					list.setSelectedIndex(0);
+					list.ensureIndexIsVisible(0);
+				}
+
+				// The list takes the keys once it's on the screen
+				SwingUtilities.invokeLater(new Runnable() {
+
+					@Override
+					public void run() {
+						list.requestFocusInWindow();
+					}
+
+				});
+			}
+
+			@Override
+			public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+			}
+
+			@Override
+			public void popupMenuCanceled(PopupMenuEvent e) {
+			}
+
+		});
+
+		return menu;
+	}
+
+	/*
+	 * Make the list look like the items of a menu.
+	 */
+	private static void setMenuColors(JList<?> list) {
+		Color background = UIManager.getColor("MenuItem.background");
+		Color foreground = UIManager.getColor("MenuItem.foreground");
+		Color selectionBackground = UIManager.getColor("MenuItem.selectionBackground");
+		Color selectionForeground = UIManager.getColor("MenuItem.selectionForeground");
+
+		if (background != null) {
+			list.setBackground(background);
+		}
+
+		if (foreground != null) {
+			list.setForeground(foreground);
+		}
+
+		if (selectionBackground != null) {
+			list.setSelectionBackground(selectionBackground);
+		}
+
+		if (selectionForeground != null) {
+			list.setSelectionForeground(selectionForeground);
+		}
+	}
+
+	/*
+	 * With a fixed cell size the list doesn't measure every entry of the
+	 * model. The height is the one of a menu item, and the width the one of
+	 * the widest of the first entries.
+	 */
+	private static <E> void setFixedCellSize(JList<E> list) {
+		ListModel<E> model = list.getModel();
+		ListCellRenderer<? super E> renderer = list.getCellRenderer();
+		int height = new JMenuItem("X").getPreferredSize().height;
+		int width = new JMenuItem("XXXXXXXXXXXXXXXXXXXX").getPreferredSize().width;
+
+		for (int i = 0; i < Math.min(MEASURED_ROWS, model.getSize()); i++) {
+			Component cell = renderer.getListCellRendererComponent(list, model.getElementAt(i), i, false, false);
+
+			width = Math.max(width, cell.getPreferredSize().width);
+		}
+
+		list.setFixedCellHeight(height);
+		list.setFixedCellWidth(width + UIManager.getInt("ScrollBar.width"));
+	}
+
+	private static void bindKey(JList<?> list, int keyCode, String name, AbstractAction action) {
+		list.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(keyCode, 0), name);
+		list.getActionMap().put(name, action);
+	}
+
+	/*
+	 * Close the menu and send the command of the selected entry, as a menu
+	 * item does.
+	 */
+	private static void choose(JPopupMenu menu, JList<?> list, ActionListener listener, String[] commands) {
+		ListModel<?> model = list.getModel();
+		int index = list.getSelectedIndex();
+
+		if ((model instanceof CompactMenuModel) && (index >= 0) && !((CompactMenuModel) model).isEnabled(index)) {
+			index = -1;
+		}
+
+		if (index >= 0) {
+			String command;
+
+			if ((commands != null) && (index < commands.length)) {
+				command = commands[index];
+			} else if (model instanceof CompactMenuModel) {
+				command = ((CompactMenuModel) model).getCommand(index);
+			} else {
+				command = String.valueOf(model.getElementAt(index));
+			}
+
+			menu.setVisible(false);
+			listener.actionPerformed(new ActionEvent(list, ActionEvent.ACTION_PERFORMED, command));
+		}
+	}
+
+}
@@ -0,0 +1,449 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.menu;
+
+import java.awt.Component;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+
+/**
+ * A search index over all the items of a menu bar, for a command palette. The
+ * words of every item are kept in a sorted map, so a prefix search doesn't walk
+ * the menus, and the items that don't match by prefix are matched by
+ * subsequence ("opf" finds "Open File"), once the query has
+ * {@value #MIN_SUBSEQUENCE_LETTERS} letters. The subsequence match only walks
+ * the items which contain the rarest letter of the query. The index listens to the menus and is
+ * updated when items are added, removed or renamed.
+ * <p>
+ * The index must be used in the Event Dispatch Thread. The items of a
+ * {@code JLazyMenu} are indexed once the menu is loaded.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.component.JCommandPalette
+ * 
+ * @author Cristian Jimenez
+ */
+public final class CommandIndex {
+
+	private static final String PATH_SEPARATOR = " > ";
+
+	/**
+	 * The letters a query needs to be matched by subsequence. The subsequence
+	 * match walks all the items, and a shorter query matches most of them.
+	 */
+	public static final int MIN_SUBSEQUENCE_LETTERS = 3;
+
+	private final JMenuBar menuBar;
+	private final Map<JMenuItem, Entry> entries;
+	private final TreeMap<String, List<Entry>> words;
+	private final Map<Character, Set<Entry>> characters;
+	private final ContainerListener structureListener;
+	private final PropertyChangeListener textListener;
+
+	/**
+	 * Creates the index of a menu bar.
+	 * 
+	 * @param menuBar
+	 *            The menu bar.
+	 */
+	public CommandIndex(JMenuBar menuBar) {
+		this.menuBar = menuBar;
+		this.entries = new HashMap<JMenuItem, Entry>();
+		this.words = new TreeMap<String, List<Entry>>();
+		this.characters = new HashMap<Character, Set<Entry>>();
+		this.structureListener = new ContainerListener() {
+
+			@Override
+			public void componentAdded(ContainerEvent e) {
+				add(e.getChild());
+			}
+
+			@Override
+			public void componentRemoved(ContainerEvent e) {
+				remove(e.getChild());
+			}
+
+		};
+		this.textListener = new PropertyChangeListener() {
+
+			@Override
+			public void propertyChange(PropertyChangeEvent evt) {
+				Component source = (Component) evt.getSource();
+
+				// The paths of the children of a renamed menu change too
+				remove(source);
+				add(source);
+			}
+
+		};
+
+		menuBar.addContainerListener(structureListener);
+
+		for (Component menu : menuBar.getComponents()) {
+			add(menu);
+		}
+	}
+
+	/**
+	 * Gets the indexed menu bar.
+	 * 
+	 * @return The menu bar.
+	 */
+	public JMenuBar getMenuBar() {
+		return menuBar;
+	}
+
+	/**
+	 * Gets the number of indexed items.
+	 * 
+	 * @return The number of items.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets the path of an indexed item ("File &gt; Export &gt; PDF").
+	 * 
+	 * @param item
+	 *            The item.
+	 * 
+	 * @return The path, or {@code null} if the item isn't indexed.
+	 */
+	public String getPath(JMenuItem item) {
+		Entry entry = entries.get(item);
+
+		return (entry != null) ? entry.path : null;
+	}
+
+	/**
+	 * Searches the enabled items. First come the items whose words start with
+	 * the words of the query (the ones whose text starts with the whole query
+	 * first), then the items whose text contains the query letters in order.
+	 * The query is split into words like the paths of the items, so "File &gt;
+	 * Export" and "save-as" find their items.
+	 * 
+	 * @param query
+	 *            The text to search.
+	 * @param max
+	 *            The maximum number of results.
+	 * 
+	 * @return The found items.
+	 */
+	public List<JMenuItem> search(String query, int max) {
+		String text = query.trim().toLowerCase(Locale.ROOT);
+		String[] tokens = Entry.splitWords(text);
+		String letters = String.join("", tokens);
+		LinkedHashSet<Entry> first = new LinkedHashSet<Entry>();
+		LinkedHashSet<Entry> second = new LinkedHashSet<Entry>();
+		List<JMenuItem> results = new ArrayList<JMenuItem>();
+
+		Collection<List<Entry>> candidates = null;
+		int fewest = Integer.MAX_VALUE;
+
+		if (tokens.length == 0) {
+			return results;
+		}
+
+		// Walk only the candidates of the most selective word of the query
+		for (String token : tokens) {
+			Collection<List<Entry>> matched = words.subMap(token, true, token + Character.MAX_VALUE, true).values();
+			int count = 0;
+
+			for (Iterator<List<Entry>> iterator = matched.iterator(); iterator.hasNext() && (count < fewest);) {
+				count += iterator.next().size();
+			}
+
+			if (count < fewest) {
+				candidates = matched;
+				fewest = count;
+			}
+		}
+
+		for (List<Entry> matched : candidates) {
+			if (first.size() >= max) {
+				break;
+			}
+
+			for (Entry entry : matched) {
+				if (entry.matchesPrefixes(tokens)) {
+					(entry.label.startsWith(text) ? first : second).add(entry);
+				}
+			}
+		}
+
+		first.addAll(second);
+		collect(first, results, max);
+
+		if ((results.size() < max) && (letters.length() >= MIN_SUBSEQUENCE_LETTERS)) {
+			List<Entry> fuzzy = new ArrayList<Entry>();
+
+			for (Entry entry : rarest(letters)) {
+				if (!first.contains(entry) && entry.matchesSubsequence(letters)) {
+					fuzzy.add(entry);
+				}
+			}
+
+			collect(fuzzy, results, max);
+		}
+
+		return results;
+	}
+
+	/** Stops listening to the menus and empties the index. */
+	public void dispose() {
+		menuBar.removeContainerListener(structureListener);
+
+		for (Component menu : menuBar.getComponents()) {
+			remove(menu);
+		}
+	}
+
+	/*
+	 * The items which contain the rarest letter of the query: any item that
+	 * matches by subsequence is one of them.
+	 */
+	private Set<Entry> rarest(String letters) {
+		Set<Entry> fewest = null;
+
+		for (int i = 0; i < letters.length(); i++) {
+			Set<Entry> containing = characters.get(letters.charAt(i));
+
+			if (containing == null) {
+				return new HashSet<Entry>(0);
+			} else if ((fewest == null) || (containing.size() < fewest.size())) {
+				fewest = containing;
+			}
+		}
+
+		return fewest;
+	}
+
+	private static void collect(Iterable<Entry> found, List<JMenuItem> results, int max) {
+		for (Entry entry : found) {
+			if (results.size() >= max) {
+				break;
+			} else if (entry.item.isEnabled()) {
+				results.add(entry.item);
+			}
+		}
+	}
+
+	/*
+	 * Index an item, or a menu and all its items.
+	 */
+	private void add(Component component) {
+		if (component instanceof JMenu) {
+			JMenu menu = (JMenu) component;
+
+			menu.addPropertyChangeListener("text", textListener);
+			menu.getPopupMenu().addContainerListener(structureListener);
+
+			for (Component child : menu.getMenuComponents()) {
+				add(child);
+			}
+		} else if ((component instanceof JMenuItem) && !entries.containsKey(component)) {
+			JMenuItem item = (JMenuItem) component;
+			Entry entry = new Entry(item, pathOf(item));
+
+			item.addPropertyChangeListener("text", textListener);
+			entries.put(item, entry);
+
+			for (String word : entry.words) {
+				List<Entry> list = words.get(word);
+
+				if (list == null) {
+					list = new ArrayList<Entry>(1);
+					words.put(word, list);
+				}
+
+				list.add(entry);
+			}
+
+			for (Character character : entry.characters()) {
+				Set<Entry> set = characters.get(character);
+
+				if (set == null) {
+					// Removed one by one when a menu is renamed
+					set = new LinkedHashSet<Entry>();
+					characters.put(character, set);
+				}
+
+				set.add(entry);
+			}
+		}
+	}
+
+	/*
+	 * Remove an item, or a menu and all its items, from the index.
+	 */
+	private void remove(Component component) {
+		if (component instanceof JMenu) {
+			JMenu menu = (JMenu) component;
+
+			menu.removePropertyChangeListener("text", textListener);
+			menu.getPopupMenu().removeContainerListener(structureListener);
+
+			for (Component child : menu.getMenuComponents()) {
+				remove(child);
+			}
+		} else if (component instanceof JMenuItem) {
+			Entry entry = entries.remove(component);
+
+			component.removePropertyChangeListener("text", textListener);
+
+			if (entry != null) {
+				for (String word : entry.words) {
+					List<Entry> list = words.get(word);
+
+					if ((list != null) && list.remove(entry) && list.isEmpty()) {
+						words.remove(word);
+					}
+				}
+
+				for (Character character : entry.characters()) {
+					Set<Entry> set = characters.get(character);
+
+					if ((set != null) && set.remove(entry) && set.isEmpty()) {
+						characters.remove(character);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * The texts of the menus from the menu bar to the item.
+	 */
+	private static String pathOf(JMenuItem item) {
+		StringBuilder path = new StringBuilder(String.valueOf(item.getText()));
+		Component parent = item.getParent();
+
+		while (parent instanceof JPopupMenu) {
+			Component invoker = ((JPopupMenu) parent).getInvoker();
+
+			if (invoker instanceof JMenu) {
+				path.insert(0, PATH_SEPARATOR).insert(0, ((JMenu) invoker).getText());
+				parent = invoker.getParent();
+			} else {
+				break;
+			}
+		}
+
+		return path.toString();
+	}
+
+	/*
+	 * An indexed item, with its words in lower case.
+	 */
+	private static final class Entry {
+
+		private final JMenuItem item;
+		private final String path;
+		private final String label;
+		private final String[] words;
+
+		private Entry(JMenuItem item, String path) {
+			this.item = item;
+			this.path = path;
+			this.label = String.valueOf(item.getText()).toLowerCase(Locale.ROOT);
+			this.words = splitWords(path.toLowerCase(Locale.ROOT));
+		}
+
+		private static String[] splitWords(String text) {
+			Set<String> unique = new LinkedHashSet<String>();
+
+			for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+				if (!word.isEmpty()) {
+					unique.add(word);
+				}
+			}
+
+			return unique.toArray(new String[unique.size()]);
+		}
+
+		/*
+		 * The distinct letters and digits of the text.
+		 */
+		private Set<Character> characters() {
+			Set<Character> unique = new LinkedHashSet<Character>();
+
+			for (int i = 0; i < label.length(); i++) {
+				if (Character.isLetterOrDigit(label.charAt(i))) {
+					unique.add(label.charAt(i));
+				}
+			}
+
+			return unique;
+		}
+
+		/*
+		 * Every token of the query is the prefix of some word.
+		 */
+		private boolean matchesPrefixes(String[] tokens) {
+			for (String token : tokens) {
+				boolean found = false;
+
+				for (int i = 0; !found && (i < words.length); i++) {
+					found = words[i].startsWith(token);
+				}
+
+				if (!found) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private boolean matchesSubsequence(String letters) {
+			int next = 0;
+
+			for (int i = 0; (i < label.length()) && (next < letters.length()); i++) {
+				if (label.charAt(i) == letters.charAt(next)) {
+					next++;
+				}
+			}
+
+			return next == letters.length();
+		}
+
+	}
+
+}
@@ -0,0 +1,278 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.menu;
+
+import java.awt.Component;
+import java.awt.event.ActionListener;
+import java.util.Arrays;
+
+import javax.swing.AbstractListModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import javax.swing.JMenuItem;
+import javax.swing.ListCellRenderer;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * A flyweight model of a huge list of static menu items. Instead of one
+ * {@link JMenuItem} per entry, with its UI delegate, listeners and client
+ * properties, every entry is just a text, a command and some flags in compact
+ * arrays, and all the entries are painted by one shared renderer. A real
+ * {@code JMenuItem} is built only when it is needed, with
+ * {@link #materialize(int, ActionListener)}.
+ * <p>
+ * The model is shown with
+ * {@code VirtualPopupMenuFactory.createPopupMenu(ActionListener, ListModel)},
+ * which sends the command of the chosen entry and ignores the disabled ones.
+ * It must be used in the Event Dispatch Thread.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.VirtualPopupMenuFactory
+ * 
+ * @author Cristian Jimenez
+ */
+public final class CompactMenuModel extends AbstractListModel<String> {
+
+	private static final long serialVersionUID = 50L;
+
+	/** The flag of a disabled entry. */
+	public static final int DISABLED = 1;
+
+	private static final ListCellRenderer<Object> renderer = new DefaultListCellRenderer() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean selected,
+				boolean focused) {
+			boolean enabled = !(list.getModel() instanceof CompactMenuModel)
+					|| ((CompactMenuModel) list.getModel()).isEnabled(index);
+
+			super.getListCellRendererComponent(list, value, index, selected && enabled, false);
+			setEnabled(enabled);
+
+			return this;
+		}
+
+	};
+
+	private String[] labels;
+	private String[] commands;
+	private byte[] flags;
+	private int size;
+
+	/**
+	 * Creates an empty model.
+	 * 
+	 * @param capacity
+	 *            The expected number of entries.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code capacity} is negative.
+	 */
+	public CompactMenuModel(int capacity) throws InvalidParameterException {
+		if (capacity < 0) {
+			throw new InvalidParameterException("The capacity can't be negative!");
+		}
+
+		this.labels = new String[capacity];
+		this.commands = new String[capacity];
+		this.flags = new byte[capacity];
+	}
+
+	/**
+	 * Gets the renderer shared by all the compact models. It paints the
+	 * disabled entries as disabled.
+	 * 
+	 * @return The renderer.
+	 */
+	public static ListCellRenderer<Object> getRenderer() {
+		return renderer;
+	}
+
+	/**
+	 * Adds an entry whose command is its text.
+	 * 
+	 * @param label
+	 *            The text.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code label} is {@code null}.
+	 */
+	public void add(String label) throws InvalidParameterException {
+		add(label, null, 0);
+	}
+
+	/**
+	 * Adds an entry.
+	 * 
+	 * @param label
+	 *            The text.
+	 * @param command
+	 *            The command, or {@code null} to use the text.
+	 * @param entryFlags
+	 *            The flags ({@link #DISABLED}), or {@code 0}.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code label} is {@code null}.
+	 */
+	public void add(String label, String command, int entryFlags) throws InvalidParameterException {
+		if (label == null) {
+			throw new InvalidParameterException(new NullPointerException("label"));
+		}
+
+		if (size == labels.length) {
+			int capacity = Math.max(16, size + (size >> 1));
+
+			labels = Arrays.copyOf(labels, capacity);
+			commands = Arrays.copyOf(commands, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+		}
+
+		labels[size] = label;
+		// The command is kept only if it isn't the text
+		commands[size] = label.equals(command) ? null : command;
+		flags[size] = (byte) entryFlags;
+		size++;
+		fireIntervalAdded(this, size - 1, size - 1);
+	}
+
+	/** Removes all the entries. */
+	public void clear() {
+		int oldSize = size;
+
+		if (oldSize > 0) {
+			Arrays.fill(labels, 0, oldSize, null);
+			Arrays.fill(commands, 0, oldSize, null);
+			Arrays.fill(flags, 0, oldSize, (byte) 0);
+			size = 0;
+			fireIntervalRemoved(this, 0, oldSize - 1);
+		}
+	}
+
+	/** Releases the free space of the arrays, once all the entries are added. */
+	public void trimToSize() {
+		if (size < labels.length) {
+			labels = Arrays.copyOf(labels, size);
+			commands = Arrays.copyOf(commands, size);
+			flags = Arrays.copyOf(flags, size);
+		}
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String getElementAt(int index) {
+		return getLabel(index);
+	}
+
+	/**
+	 * Gets the text of an entry.
+	 * 
+	 * @param index
+	 *            The entry index.
+	 * 
+	 * @return The text.
+	 */
+	public String getLabel(int index) {
+		checkIndex(index);
+		return labels[index];
+	}
+
+	/**
+	 * Gets the command of an entry.
+	 * 
+	 * @param index
+	 *            The entry index.
+	 * 
+	 * @return The command.
+	 */
+	public String getCommand(int index) {
+		checkIndex(index);
+		return (commands[index] != null) ? commands[index] : labels[index];
+	}
+
+	/**
+	 * Checks if an entry is enabled.
+	 * 
+	 * @param index
+	 *            The entry index.
+	 * 
+	 * @return {@code true} if the entry doesn't have the {@link #DISABLED}
+	 *         flag.
+	 */
+	public boolean isEnabled(int index) {
+		checkIndex(index);
+		return (flags[index] & DISABLED) == 0;
+	}
+
+	/**
+	 * Enables or disables an entry.
+	 * 
+	 * @param index
+	 *            The entry index.
+	 * @param enabled
+	 *            {@code true} to enable the entry.
+	 */
+	public void setEnabled(int index, boolean enabled) {
+		checkIndex(index);
+
+		if (enabled != isEnabled(index)) {
+			flags[index] ^= DISABLED;
+			fireContentsChanged(this, index, index);
+		}
+	}
+
+	/**
+	 * Builds a real menu item for an entry, for the cases where a component is
+	 * needed (a sub-menu, a toolbar...). The item isn't kept by the model.
+	 * 
+	 * @param index
+	 *            The entry index.
+	 * @param listener
+	 *            The object that will listen to the item, or {@code null}.
+	 * 
+	 * @return The menu item.
+	 */
+	public JMenuItem materialize(int index, ActionListener listener) {
+		JMenuItem item = new JMenuItem(getLabel(index));
+
+		item.setActionCommand(getCommand(index));
+		item.setEnabled(isEnabled(index));
+
+		if (listener != null) {
+			item.addActionListener(listener);
+		}
+
+		return item;
+	}
+
+	private void checkIndex(int index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+}
@@ -0,0 +1,426 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.menu;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import javax.swing.KeyStroke;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * Loads menus defined in resource files, in a compact properties format (UTF-8)
+ * where every entry has an id:
+ * 
+ * <pre>
+ * menus = file, edit
+ * file = File
+ * file.items = open, _separator, export
+ * open = Open...
+ * open.accelerator = control O
+ * export = Export
+ * export.items = pdf
+ * pdf = PDF
+ * pdf.command = exportPdf
+ * </pre>
+ * 
+ * {@code menus} lists the menus of the menu bar. The value of an id is its
+ * text, {@code id.items} makes it a menu with those children
+ * ({@code _separator} is a separator), {@code id.command} sets its command (the
+ * id by default) and {@code id.accelerator} its key stroke.
+ * <p>
+ * The parsed models are kept in memory, so every resource is parsed once. If a
+ * cache directory is set, the models are also saved there in a binary file,
+ * with the checksum of the resource they come from; the next startups read
+ * that file instead of parsing the resource, as long as the resource doesn't
+ * change.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.StandardMenuFactory#createMenus(String, java.awt.event.ActionListener)
+ * 
+ * @author Cristian Jimenez
+ */
+public abstract class MenuDefinitionLoader {
+
+	/** The key of the list of menus of the menu bar. */
+	public static final String MENUS_KEY = "menus";
+
+	/** Indicates where's the separator. */
+	public static final String SEPARATOR = "_separator";
+
+	private static final int CACHE_MAGIC = 0x4D454E55;
+	private static final int CACHE_VERSION = 1;
+	private static final byte ITEM = 0;
+	private static final byte MENU = 1;
+	private static final byte SEPARATOR_NODE = 2;
+
+	private static final ConcurrentHashMap<String, List<MenuNode>> loaded =
+			new ConcurrentHashMap<String, List<MenuNode>>();
+	private static volatile File cacheDirectory;
+
+	/**
+	 * Sets the directory of the binary cache files.
+	 * 
+	 * @param directory
+	 *            The directory, or {@code null} to keep the models only in
+	 *            memory.
+	 */
+	public static void setCacheDirectory(File directory) {
+		cacheDirectory = directory;
+	}
+
+	/**
+	 * Gets the directory of the binary cache files.
+	 * 
+	 * @return The directory, or {@code null} if there isn't binary cache.
+	 */
+	public static File getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * Loads the menus of a resource file, parsed only the first time.
+	 * 
+	 * @param resource
+	 *            The resource path in the class path (for example,
+	 *            {@code "com/example/menus.properties"}).
+	 * 
+	 * @return The models of the menus of the menu bar, in order.
+	 * 
+	 * @throws IOException
+	 *             If the resource can't be read.
+	 * @throws InvalidParameterException
+	 *             If {@code resource} is {@code null} or the definition isn't
+	 *             valid.
+	 */
+	public static List<MenuNode> load(String resource) throws IOException, InvalidParameterException {
+		List<MenuNode> menus;
+
+		if (resource == null) {
+			throw new InvalidParameterException(new NullPointerException("resource"));
+		}
+
+		menus = loaded.get(resource);
+
+		if (menus == null) {
+			byte[] source = readResource(resource);
+			CRC32 checksum = new CRC32();
+			File cacheFile;
+
+			checksum.update(source, 0, source.length);
+			cacheFile = getCacheFile(resource);
+			menus = (cacheFile != null) ? readCache(cacheFile, checksum.getValue()) : null;
+
+			if (menus == null) {
+				menus = parse(source);
+
+				if (cacheFile != null) {
+					writeCache(cacheFile, checksum.getValue(), menus);
+				}
+			}
+
+			loaded.putIfAbsent(resource, menus);
+		}
+
+		return menus;
+	}
+
+	/**
+	 * Drops the models kept in memory, so the resources are loaded again.
+	 */
+	public static void clear() {
+		loaded.clear();
+	}
+
+	private static byte[] readResource(String resource) throws IOException {
+		InputStream in = MenuDefinitionLoader.class.getClassLoader().getResourceAsStream(resource);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+
+		if (in == null) {
+			throw new FileNotFoundException(resource);
+		}
+
+		try {
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+
+		return out.toByteArray();
+	}
+
+	// Parser
+
+	private static List<MenuNode> parse(byte[] source) throws IOException, InvalidParameterException {
+		Properties definition = new Properties();
+		List<MenuNode> menus = new ArrayList<MenuNode>();
+		String menuIds;
+
+		definition.load(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8));
+		menuIds = definition.getProperty(MENUS_KEY);
+
+		if (menuIds == null) {
+			throw new InvalidParameterException("The menu definition doesn't have '" + MENUS_KEY + "'!");
+		}
+
+		for (String id : splitIds(menuIds)) {
+			MenuNode menu = parseNode(definition, id, new HashSet<String>());
+
+			if (!menu.isMenu()) {
+				throw new InvalidParameterException("'" + id + "' isn't a menu!");
+			}
+
+			menus.add(menu);
+		}
+
+		return Collections.unmodifiableList(menus);
+	}
+
+	/*
+	 * Build a node and its children. The path avoids the cycles.
+	 */
+	private static MenuNode parseNode(Properties definition, String id, Set<String> path)
+			throws InvalidParameterException {
+		String label = definition.getProperty(id);
+		String items = definition.getProperty(id + ".items");
+		String accelerator = definition.getProperty(id + ".accelerator");
+		MenuNode.Builder builder;
+
+		if (id.equals(SEPARATOR)) {
+			return MenuNode.separator();
+		} else if (label == null) {
+			throw new InvalidParameterException("The menu entry '" + id + "' doesn't have a text!");
+		} else if (!path.add(id)) {
+			throw new InvalidParameterException("The menu entry '" + id + "' contains itself!");
+		}
+
+		builder = (items != null) ? MenuNode.menu(label) : MenuNode.item(label);
+		builder.id(id).command(definition.getProperty(id + ".command", id));
+
+		if (accelerator != null) {
+			builder.accelerator(parseAccelerator(id, accelerator));
+		}
+
+		if (items != null) {
+			for (String child : splitIds(items)) {
+				builder.add(parseNode(definition, child, path));
+			}
+		}
+
+		path.remove(id);
+
+		return builder.build();
+	}
+
+	private static KeyStroke parseAccelerator(String id, String text) throws InvalidParameterException {
+		KeyStroke accelerator = KeyStroke.getKeyStroke(text);
+
+		if (accelerator == null) {
+			throw new InvalidParameterException("Wrong accelerator of '" + id + "': " + text);
+		}
+
+		return accelerator;
+	}
+
+	private static List<String> splitIds(String ids) {
+		List<String> split = new ArrayList<String>();
+
+		for (String id : ids.split(",")) {
+			if (!id.trim().isEmpty()) {
+				split.add(id.trim());
+			}
+		}
+
+		return split;
+	}
+
+	// Binary cache
+
+	private static File getCacheFile(String resource) {
+		File directory = cacheDirectory;
+
+		return (directory != null) ? new File(directory, resource.replaceAll("[^A-Za-z0-9._-]", "_") + ".menucache")
+				: null;
+	}
+
+	/*
+	 * The file is: magic, version, checksum of the resource, length of the
+	 * nodes, nodes and checksum of the nodes. Any mismatch means that the
+	 * resource must be parsed again.
+	 */
+	private static List<MenuNode> readCache(File cacheFile, long sourceChecksum) {
+		List<MenuNode> menus = null;
+
+		if (cacheFile.isFile()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+				if ((in.readInt() == CACHE_MAGIC) && (in.readInt() == CACHE_VERSION)
+						&& (in.readLong() == sourceChecksum)) {
+					byte[] payload = new byte[in.readInt()];
+					CRC32 checksum = new CRC32();
+
+					in.readFully(payload);
+					checksum.update(payload, 0, payload.length);
+
+					if (in.readLong() == checksum.getValue()) {
+						menus = readNodes(new DataInputStream(new ByteArrayInputStream(payload)));
+					}
+				}
+			} catch (IOException | InvalidParameterException | RuntimeException exc) {
+				Logger.getLogger(MenuDefinitionLoader.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			}
+		}
+
+		return menus;
+	}
+
+	private static void writeCache(File cacheFile, long sourceChecksum, List<MenuNode> menus) {
+		File temporary = new File(cacheFile.getPath() + ".tmp");
+
+		try {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			CRC32 checksum = new CRC32();
+			DataOutputStream nodes = new DataOutputStream(payload);
+
+			nodes.writeInt(menus.size());
+
+			for (MenuNode menu : menus) {
+				writeNode(nodes, menu);
+			}
+
+			nodes.flush();
+			checksum.update(payload.toByteArray(), 0, payload.size());
+
+			if (!cacheFile.getParentFile().isDirectory() && !cacheFile.getParentFile().mkdirs()) {
+				throw new IOException("Can't create " + cacheFile.getParentFile());
+			}
+
+			try (OutputStream file = new FileOutputStream(temporary);
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+				out.writeInt(CACHE_MAGIC);
+				out.writeInt(CACHE_VERSION);
+				out.writeLong(sourceChecksum);
+				out.writeInt(payload.size());
+				payload.writeTo(out);
+				out.writeLong(checksum.getValue());
+			}
+
+			if (!temporary.renameTo(cacheFile) && (!cacheFile.delete() || !temporary.renameTo(cacheFile))) {
+				throw new IOException("Can't replace " + cacheFile);
+			}
+		} catch (IOException ioe) {
+			temporary.delete();
+			Logger.getLogger(MenuDefinitionLoader.class.getName()).log(Level.WARNING, ioe.getMessage(), ioe);
+		}
+	}
+
+	private static void writeNode(DataOutputStream out, MenuNode node) throws IOException {
+		if (node.isSeparator()) {
+			out.writeByte(SEPARATOR_NODE);
+		} else {
+			out.writeByte(node.isMenu() ? MENU : ITEM);
+			out.writeUTF(node.getId());
+			out.writeUTF(node.getLabel());
+			out.writeUTF(node.getCommand());
+			out.writeUTF((node.getAccelerator() != null) ? node.getAccelerator().toString() : "");
+
+			if (node.isMenu()) {
+				out.writeInt(node.getChildren().size());
+
+				for (MenuNode child : node.getChildren()) {
+					writeNode(out, child);
+				}
+			}
+		}
+	}
+
+	private static List<MenuNode> readNodes(DataInputStream in) throws IOException, InvalidParameterException {
+		int count = in.readInt();
+		List<MenuNode> menus = new ArrayList<MenuNode>(count);
+
+		for (int i = 0; i < count; i++) {
+			menus.add(readNode(in));
+		}
+
+		return Collections.unmodifiableList(menus);
+	}
+
+	private static MenuNode readNode(DataInputStream in) throws IOException, InvalidParameterException {
+		byte kind = in.readByte();
+		MenuNode.Builder builder;
+		String id;
+		String label;
+		String command;
+		String accelerator;
+
+		if (kind == SEPARATOR_NODE) {
+			return MenuNode.separator();
+		}
+
+		id = in.readUTF();
+		label = in.readUTF();
+		command = in.readUTF();
+		accelerator = in.readUTF();
+		builder = ((kind == MENU) ? MenuNode.menu(label) : MenuNode.item(label)).id(id).command(command);
+
+		if (!accelerator.isEmpty()) {
+			builder.accelerator(parseAccelerator(id, accelerator));
+		}
+
+		if (kind == MENU) {
+			int children = in.readInt();
+
+			for (int i = 0; i < children; i++) {
+				builder.add(readNode(in));
+			}
+		}
+
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,210 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.menu;
+
+import java.awt.Component;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * Labels menus from resource bundles, and relabels them in place when the
+ * locale changes. Every localized menu or item keeps its bundle and key as
+ * client properties, so switching the language only sets the texts that
+ * changed, in one pass over the items and with one layout for the whole menu
+ * bar. The components and their listeners are kept.
+ * <p>
+ * A localized item uses its key as action command, so the listeners don't
+ * depend on the language. The relabeling must be done in the Event Dispatch
+ * Thread.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.StandardMenuFactory#createLocalizedMenu(String, Locale, String, java.awt.event.ActionListener, String...)
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#applyLocale(Locale)
+ * 
+ * @author Cristian Jimenez
+ */
+public abstract class MenuLocalizer {
+
+	/** The client property where the bundle base name of a component is kept. */
+	public static final String BUNDLE_PROPERTY = "menuBundle";
+
+	/** The client property where the bundle key of a component is kept. */
+	public static final String KEY_PROPERTY = "menuBundleKey";
+
+	/**
+	 * Makes a menu or an item localized, and sets its text for a locale.
+	 * 
+	 * @param item
+	 *            The menu or item.
+	 * @param baseName
+	 *            The base name of the bundle.
+	 * @param key
+	 *            The key of the text in the bundle.
+	 * @param locale
+	 *            The locale of the text.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If any parameter is {@code null}, or the bundle or the key
+	 *             don't exist.
+	 */
+	public static void localize(JMenuItem item, String baseName, String key, Locale locale)
+			throws InvalidParameterException {
+		if ((item == null) || (baseName == null) || (key == null) || (locale == null)) {
+			throw new InvalidParameterException(new NullPointerException());
+		}
+
+		try {
+			item.setText(ResourceBundle.getBundle(baseName, locale).getString(key));
+		} catch (MissingResourceException mre) {
+			throw new InvalidParameterException(mre);
+		}
+
+		item.putClientProperty(BUNDLE_PROPERTY, baseName);
+		item.putClientProperty(KEY_PROPERTY, key);
+
+		if (!(item instanceof JMenu)) {
+			item.setActionCommand(key);
+		}
+	}
+
+	/**
+	 * Gets the bundle key of a localized menu or item.
+	 * 
+	 * @param item
+	 *            The menu or item.
+	 * 
+	 * @return The key, or {@code null} if the item isn't localized.
+	 */
+	public static String getKey(JMenuItem item) {
+		return (String) item.getClientProperty(KEY_PROPERTY);
+	}
+
+	/**
+	 * Relabels all the localized menus and items of a menu bar, then lays out
+	 * the menu bar once.
+	 * 
+	 * @param menuBar
+	 *            The menu bar.
+	 * @param locale
+	 *            The new locale.
+	 * 
+	 * @return The number of texts which changed.
+	 */
+	public static int relabel(JMenuBar menuBar, Locale locale) {
+		Map<String, ResourceBundle> bundles = new HashMap<String, ResourceBundle>();
+		int changed = 0;
+
+		for (Component menu : menuBar.getComponents()) {
+			changed += relabel(menu, locale, bundles);
+		}
+
+		if (changed > 0) {
+			menuBar.revalidate();
+			menuBar.repaint();
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Relabels all the localized menus and items of a popup menu, then lays it
+	 * out once.
+	 * 
+	 * @param popupMenu
+	 *            The popup menu.
+	 * @param locale
+	 *            The new locale.
+	 * 
+	 * @return The number of texts which changed.
+	 */
+	public static int relabel(JPopupMenu popupMenu, Locale locale) {
+		Map<String, ResourceBundle> bundles = new HashMap<String, ResourceBundle>();
+		int changed = 0;
+
+		for (Component item : popupMenu.getComponents()) {
+			changed += relabel(item, locale, bundles);
+		}
+
+		if (changed > 0) {
+			popupMenu.revalidate();
+			popupMenu.repaint();
+		}
+
+		return changed;
+	}
+
+	/*
+	 * Relabel an item, or a menu and all its items. Every bundle is looked up
+	 * once per pass.
+	 */
+	private static int relabel(Component component, Locale locale, Map<String, ResourceBundle> bundles) {
+		int changed = 0;
+
+		if (component instanceof JMenuItem) {
+			JMenuItem item = (JMenuItem) component;
+			String baseName = (String) item.getClientProperty(BUNDLE_PROPERTY);
+			String key = (String) item.getClientProperty(KEY_PROPERTY);
+
+			if ((baseName != null) && (key != null)) {
+				try {
+					ResourceBundle bundle = bundles.get(baseName);
+					String text;
+
+					if (bundle == null) {
+						bundle = ResourceBundle.getBundle(baseName, locale);
+						bundles.put(baseName, bundle);
+					}
+
+					text = bundle.getString(key);
+
+					if (!text.equals(item.getText())) {
+						item.setText(text);
+						changed++;
+					}
+				} catch (MissingResourceException mre) {
+					// The item keeps its old text
+					Logger.getLogger(MenuLocalizer.class.getName()).log(Level.WARNING, mre.getMessage(), mre);
+				}
+			}
+
+			if (item instanceof JMenu) {
+				for (Component child : ((JMenu) item).getMenuComponents()) {
+					changed += relabel(child, locale, bundles);
+				}
+			}
+		}
+
+		return changed;
+	}
+
+}
@@ -0,0 +1,338 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.menu;
+
+import java.awt.Component;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * Turns {@link MenuNode} models into Swing menus, and applies a new version of
+ * a model to menus already built. Every menu and item keeps its node, so the
+ * components are reused by id: only the new nodes are built, and only the
+ * properties that changed are set. The enabled predicates are evaluated every
+ * time a menu is shown.
+ * 
+ * @see MenuNode
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.StandardMenuFactory#createMenu(MenuNode, ActionListener)
+ * @see com.github.cjengineer18.desktopwindowtemplate.util.factory.PopupMenuFactory#createPopupMenu(MenuNode, ActionListener)
+ * 
+ * @author Cristian Jimenez
+ */
+public abstract class MenuMaterializer {
+
+	/** The client property where the node of a component is kept. */
+	public static final String NODE_PROPERTY = "menuNode";
+
+	/*
+	 * Shared by all the menus: evaluate the enabled predicates when shown.
+	 */
+	private static final MenuListener menuRefresher = new MenuListener() {
+
+		@Override
+		public void menuSelected(MenuEvent e) {
+			refreshEnabled(((JMenu) e.getSource()).getPopupMenu());
+		}
+
+		@Override
+		public void menuDeselected(MenuEvent e) {
+			// Nothing
+		}
+
+		@Override
+		public void menuCanceled(MenuEvent e) {
+			// Nothing
+		}
+
+	};
+
+	private static final PopupMenuListener popupRefresher = new PopupMenuListener() {
+
+		@Override
+		public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+			refreshEnabled((JPopupMenu) e.getSource());
+		}
+
+		@Override
+		public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+			// Nothing
+		}
+
+		@Override
+		public void popupMenuCanceled(PopupMenuEvent e) {
+			// Nothing
+		}
+
+	};
+
+	/**
+	 * Builds a menu from a model.
+	 * 
+	 * @param model
+	 *            The menu model.
+	 * @param listener
+	 *            The listener of all the items.
+	 * 
+	 * @return The menu.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code model} is {@code null} or isn't a menu.
+	 */
+	public static JMenu createMenu(MenuNode model, ActionListener listener) throws InvalidParameterException {
+		if ((model == null) || !model.isMenu()) {
+			throw new InvalidParameterException("The model must be a menu!");
+		}
+
+		return (JMenu) createComponent(model, listener);
+	}
+
+	/**
+	 * Builds a popup menu with the children of a model.
+	 * 
+	 * @param model
+	 *            The menu model.
+	 * @param listener
+	 *            The listener of all the items.
+	 * 
+	 * @return The popup menu.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code model} is {@code null} or isn't a menu.
+	 */
+	public static JPopupMenu createPopupMenu(MenuNode model, ActionListener listener)
+			throws InvalidParameterException {
+		JPopupMenu popup = new JPopupMenu();
+
+		if ((model == null) || !model.isMenu()) {
+			throw new InvalidParameterException("The model must be a menu!");
+		}
+
+		popup.putClientProperty(NODE_PROPERTY, model);
+		popup.addPopupMenuListener(popupRefresher);
+		fill(popup, model, listener);
+
+		return popup;
+	}
+
+	/**
+	 * Applies a new version of a model to a menu built from an older one. The
+	 * items with the same id are reused and updated, the others are built or
+	 * removed.
+	 * 
+	 * @param menu
+	 *            The menu.
+	 * @param model
+	 *            The new model.
+	 * @param listener
+	 *            The listener of the new items.
+	 */
+	public static void update(JMenu menu, MenuNode model, ActionListener listener) {
+		apply(menu, model);
+		sync(menu.getPopupMenu(), model, listener);
+	}
+
+	/**
+	 * Applies a new version of a model to a popup menu built from an older
+	 * one.
+	 * 
+	 * @param popup
+	 *            The popup menu.
+	 * @param model
+	 *            The new model.
+	 * @param listener
+	 *            The listener of the new items.
+	 * 
+	 * @see #update(JMenu, MenuNode, ActionListener)
+	 */
+	public static void update(JPopupMenu popup, MenuNode model, ActionListener listener) {
+		popup.putClientProperty(NODE_PROPERTY, model);
+		sync(popup, model, listener);
+	}
+
+	/**
+	 * Gets the node of a component built by this class.
+	 * 
+	 * @param component
+	 *            The menu or item.
+	 * 
+	 * @return The node, or {@code null} if the component wasn't built from a
+	 *         model.
+	 */
+	public static MenuNode getNode(Component component) {
+		return (component instanceof JComponent)
+				? (MenuNode) ((JComponent) component).getClientProperty(NODE_PROPERTY)
+				: null;
+	}
+
+	/**
+	 * Evaluates the enabled predicates of the items of a popup menu. It is
+	 * invoked automatically when a menu is shown.
+	 * 
+	 * @param popup
+	 *            The popup menu of the items.
+	 */
+	public static void refreshEnabled(JPopupMenu popup) {
+		for (Component component : popup.getComponents()) {
+			MenuNode node = getNode(component);
+
+			if ((node != null) && node.hasEnabledPredicate()) {
+				component.setEnabled(node.isEnabled());
+			}
+		}
+	}
+
+	/**
+	 * Builds the component of any node: a menu item, a menu (with its
+	 * children) or a separator.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @param listener
+	 *            The listener of all the items.
+	 * 
+	 * @return The component, ready to add to a menu.
+	 */
+	public static JComponent createComponent(MenuNode node, ActionListener listener) {
+		JMenuItem component;
+
+		if (node.isSeparator()) {
+			return new JPopupMenu.Separator();
+		} else if (node.isMenu()) {
+			JMenu menu = new JMenu();
+
+			menu.addMenuListener(menuRefresher);
+			fill(menu.getPopupMenu(), node, listener);
+			component = menu;
+		} else {
+			component = new JMenuItem();
+
+			if (listener != null) {
+				component.addActionListener(listener);
+			}
+		}
+
+		apply(component, node);
+
+		return component;
+	}
+
+	private static void fill(JPopupMenu popup, MenuNode model, ActionListener listener) {
+		for (MenuNode child : model.getChildren()) {
+			popup.add(createComponent(child, listener));
+		}
+	}
+
+	/*
+	 * Set the properties of a node which changed.
+	 */
+	private static void apply(JMenuItem component, MenuNode node) {
+		MenuNode old = getNode(component);
+		String command = (node.getCommand() != null) ? node.getCommand() : node.getLabel();
+
+		if ((old == null) || !node.getLabel().equals(old.getLabel())) {
+			component.setText(node.getLabel());
+		}
+
+		if ((old == null) || (node.getIcon() != old.getIcon())) {
+			component.setIcon(node.getIcon());
+		}
+
+		if (!command.equals(component.getActionCommand())) {
+			component.setActionCommand(command);
+		}
+
+		if (!node.isMenu() && ((old == null) || (node.getAccelerator() != old.getAccelerator()))) {
+			component.setAccelerator(node.getAccelerator());
+		}
+
+		component.setName(node.getId());
+		component.setEnabled(node.isEnabled());
+		component.putClientProperty(NODE_PROPERTY, node);
+	}
+
+	/*
+	 * Make the children of the popup match the model, reusing the components
+	 * by id. The popup is only rebuilt if the order changes.
+	 */
+	private static void sync(JPopupMenu popup, MenuNode model, ActionListener listener) {
+		Map<String, JMenuItem> existing = new HashMap<String, JMenuItem>();
+		List<Component> target = new ArrayList<Component>();
+		Component[] current = popup.getComponents();
+		boolean changed = current.length != model.getChildren().size();
+
+		for (Component component : current) {
+			MenuNode node = getNode(component);
+
+			if ((node != null) && (node.getId() != null)) {
+				existing.put(node.getId(), (JMenuItem) component);
+			}
+		}
+
+		for (MenuNode child : model.getChildren()) {
+			JMenuItem reused = (child.getId() != null) ? existing.remove(child.getId()) : null;
+
+			if ((reused != null) && child.isSameNode(getNode(reused))) {
+				if (child.isMenu()) {
+					update((JMenu) reused, child, listener);
+				} else {
+					apply(reused, child);
+				}
+
+				target.add(reused);
+			} else if (child.isSeparator() && (target.size() < current.length)
+					&& (current[target.size()] instanceof JPopupMenu.Separator)) {
+				target.add(current[target.size()]);
+			} else {
+				target.add(createComponent(child, listener));
+			}
+		}
+
+		for (int i = 0; !changed && (i < current.length); i++) {
+			changed = current[i] != target.get(i);
+		}
+
+		if (changed) {
+			popup.removeAll();
+
+			for (Component component : target) {
+				popup.add(component);
+			}
+
+			popup.revalidate();
+		}
+	}
+
+}
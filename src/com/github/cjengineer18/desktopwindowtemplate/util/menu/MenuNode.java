@@ -0,0 +1,393 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.menu;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.Icon;
+import javax.swing.KeyStroke;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * An immutable menu model: an item, a menu with children or a separator. The
+ * model is validated once, when it is built, and can be turned into Swing
+ * menus as many times as needed by {@link MenuMaterializer}. Every item and
+ * menu has an id, unique in its tree, which is kept by the Swing components, so
+ * a new version of the model can be applied to the existing components instead
+ * of building them again.
+ * 
+ * <pre>
+ * MenuNode file = MenuNode.menu("File")
+ * 		.add(MenuNode.item("Open").command("open").accelerator(KeyStroke.getKeyStroke("control O")).build(),
+ * 				MenuNode.separator(), MenuNode.item("Exit").command("exit").build())
+ * 		.build();
+ * </pre>
+ * 
+ * @see MenuMaterializer
+ * 
+ * @author Cristian Jimenez
+ */
+public final class MenuNode {
+
+	private static final int ITEM = 0;
+	private static final int MENU = 1;
+	private static final int SEPARATOR = 2;
+
+	private static final MenuNode separator = new MenuNode(SEPARATOR, null, null, null, null, null, null,
+			Collections.<MenuNode>emptyList(), Collections.<String, MenuNode>emptyMap());
+
+	private final int kind;
+	private final String id;
+	private final String label;
+	private final String command;
+	private final KeyStroke accelerator;
+	private final Icon icon;
+	private final BooleanSupplier enabled;
+	private final List<MenuNode> children;
+	private final Map<String, MenuNode> index;
+
+	private MenuNode(int kind, String id, String label, String command, KeyStroke accelerator, Icon icon,
+			BooleanSupplier enabled, List<MenuNode> children, Map<String, MenuNode> index) {
+		this.kind = kind;
+		this.id = id;
+		this.label = label;
+		this.command = command;
+		this.accelerator = accelerator;
+		this.icon = icon;
+		this.enabled = enabled;
+		this.children = children;
+		this.index = index;
+	}
+
+	/**
+	 * Starts building a menu item.
+	 * 
+	 * @param label
+	 *            The item text.
+	 * 
+	 * @return The builder.
+	 */
+	public static Builder item(String label) {
+		return new Builder(ITEM, label);
+	}
+
+	/**
+	 * Starts building a menu (or a sub-menu).
+	 * 
+	 * @param label
+	 *            The menu text.
+	 * 
+	 * @return The builder.
+	 */
+	public static Builder menu(String label) {
+		return new Builder(MENU, label);
+	}
+
+	/**
+	 * Gets a separator.
+	 * 
+	 * @return The separator.
+	 */
+	public static MenuNode separator() {
+		return separator;
+	}
+
+	/**
+	 * Gets the id, unique in the tree.
+	 * 
+	 * @return The id, or {@code null} for a separator.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the text.
+	 * 
+	 * @return The text, or {@code null} for a separator.
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Gets the action command.
+	 * 
+	 * @return The command, or {@code null} to use the text as command.
+	 */
+	public String getCommand() {
+		return command;
+	}
+
+	/**
+	 * Gets the accelerator.
+	 * 
+	 * @return The accelerator, or {@code null}.
+	 */
+	public KeyStroke getAccelerator() {
+		return accelerator;
+	}
+
+	/**
+	 * Gets the icon.
+	 * 
+	 * @return The icon, or {@code null}.
+	 */
+	public Icon getIcon() {
+		return icon;
+	}
+
+	/**
+	 * Checks if the node must be enabled now, evaluating its predicate.
+	 * 
+	 * @return {@code true} if it must be enabled.
+	 */
+	public boolean isEnabled() {
+		return (enabled == null) || enabled.getAsBoolean();
+	}
+
+	/**
+	 * Checks if the node has an enabled predicate, so it must be checked
+	 * every time the menu is shown.
+	 * 
+	 * @return {@code true} if the node has a predicate.
+	 */
+	public boolean hasEnabledPredicate() {
+		return enabled != null;
+	}
+
+	/**
+	 * Gets the children of a menu.
+	 * 
+	 * @return The children (an empty list for an item or a separator).
+	 */
+	public List<MenuNode> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Checks if this node is a menu.
+	 * 
+	 * @return {@code true} if it's a menu.
+	 */
+	public boolean isMenu() {
+		return kind == MENU;
+	}
+
+	/**
+	 * Checks if this node is a separator.
+	 * 
+	 * @return {@code true} if it's a separator.
+	 */
+	public boolean isSeparator() {
+		return kind == SEPARATOR;
+	}
+
+	/**
+	 * Finds a node of this tree.
+	 * 
+	 * @param nodeId
+	 *            The node id.
+	 * 
+	 * @return The node, or {@code null} if there isn't a node with the id.
+	 */
+	public MenuNode find(String nodeId) {
+		return ((id != null) && id.equals(nodeId)) ? this : index.get(nodeId);
+	}
+
+	/**
+	 * Checks if the Swing component of this node can be updated to show the
+	 * other node, instead of being built again (both are the same kind and
+	 * have the same id).
+	 * 
+	 * @param other
+	 *            The other node.
+	 * 
+	 * @return {@code true} if the component can be updated.
+	 */
+	public boolean isSameNode(MenuNode other) {
+		return (other != null) && (kind == other.kind) && (id != null) && id.equals(other.id);
+	}
+
+	@Override
+	public String toString() {
+		return isSeparator() ? "---" : (label + " [" + id + "]");
+	}
+
+	/**
+	 * Builds a {@link MenuNode}. The id is, by default, the command, or the
+	 * text when there isn't a command.
+	 * 
+	 * @author Cristian Jimenez
+	 */
+	public static final class Builder {
+
+		private final int kind;
+		private final String label;
+		private final List<MenuNode> children;
+		private String id;
+		private String command;
+		private KeyStroke accelerator;
+		private Icon icon;
+		private BooleanSupplier enabled;
+
+		private Builder(int kind, String label) {
+			this.kind = kind;
+			this.label = label;
+			this.children = new ArrayList<MenuNode>();
+		}
+
+		/**
+		 * Sets the id, unique in the tree.
+		 * 
+		 * @param id
+		 *            The id.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder id(String id) {
+			this.id = id;
+			return this;
+		}
+
+		/**
+		 * Sets the action command.
+		 * 
+		 * @param command
+		 *            The command.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder command(String command) {
+			this.command = command;
+			return this;
+		}
+
+		/**
+		 * Sets the accelerator. Only for items.
+		 * 
+		 * @param accelerator
+		 *            The accelerator.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder accelerator(KeyStroke accelerator) {
+			this.accelerator = accelerator;
+			return this;
+		}
+
+		/**
+		 * Sets the icon.
+		 * 
+		 * @param icon
+		 *            The icon.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder icon(Icon icon) {
+			this.icon = icon;
+			return this;
+		}
+
+		/**
+		 * Sets the predicate which enables the node. It is evaluated every time
+		 * the parent menu is shown.
+		 * 
+		 * @param enabled
+		 *            The predicate.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder enabledWhen(BooleanSupplier enabled) {
+			this.enabled = enabled;
+			return this;
+		}
+
+		/**
+		 * Adds children to a menu.
+		 * 
+		 * @param nodes
+		 *            The children, in order.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder add(MenuNode... nodes) {
+			Collections.addAll(children, nodes);
+			return this;
+		}
+
+		/**
+		 * Validates and builds the node.
+		 * 
+		 * @return The node.
+		 * 
+		 * @throws InvalidParameterException
+		 *             If the node doesn't have a text, an item has children, a
+		 *             child is {@code null} or any id is repeated in the tree.
+		 */
+		public MenuNode build() throws InvalidParameterException {
+			String nodeId = (id != null) ? id : ((command != null) ? command : label);
+			Map<String, MenuNode> nodeIndex = new HashMap<String, MenuNode>();
+
+			if (label == null) {
+				throw new InvalidParameterException(new NullPointerException("label"));
+			} else if ((kind == ITEM) && !children.isEmpty()) {
+				throw new InvalidParameterException("The item '" + nodeId + "' can't have children!");
+			}
+
+			for (MenuNode child : children) {
+				if (child == null) {
+					throw new InvalidParameterException(new NullPointerException("child of " + nodeId));
+				} else if (child.id != null) {
+					index(nodeIndex, child.id, child);
+
+					for (Map.Entry<String, MenuNode> entry : child.index.entrySet()) {
+						index(nodeIndex, entry.getKey(), entry.getValue());
+					}
+				}
+			}
+
+			if (nodeIndex.containsKey(nodeId)) {
+				throw new InvalidParameterException("Repeated menu id: " + nodeId);
+			}
+
+			return new MenuNode(kind, nodeId, label, command, accelerator, icon, enabled,
+					Collections.unmodifiableList(new ArrayList<MenuNode>(children)),
+					Collections.unmodifiableMap(nodeIndex));
+		}
+
+		private static void index(Map<String, MenuNode> nodeIndex, String nodeId, MenuNode node)
+				throws InvalidParameterException {
+			if (nodeIndex.put(nodeId, node) != null) {
+				throw new InvalidParameterException("Repeated menu id: " + nodeId);
+			}
+		}
+
+	}
+
+}
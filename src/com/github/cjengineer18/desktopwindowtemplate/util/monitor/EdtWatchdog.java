@@ -0,0 +1,256 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.awt.EventQueue;
+import java.awt.Window;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * Detects when the Event Dispatch Thread stops processing events. The watchdog
+ * posts a small heartbeat to the event queue and, if the heartbeat isn't
+ * processed after the threshold, takes samples of the EDT stack until the
+ * thread is free again. Then the stall is reported to a {@link StallSink}.
+ * While there isn't any displayable window, no heartbeat is posted, so the
+ * watchdog doesn't prevent the AWT auto-shutdown.
+ * <p>
+ * Only one watchdog can be installed per process.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#enableStallWatchdog(long,
+ *      StallSink)
+ * 
+ * @author Cristian Jimenez
+ */
+public final class EdtWatchdog {
+
+	private static final int MAX_SAMPLES = 200;
+
+	private static EdtWatchdog installed;
+
+	private final long threshold;
+	private final long sampleInterval;
+	private final StallSink sink;
+	private final Thread monitor;
+
+	private volatile Thread dispatchThread;
+	private volatile long pendingSince;
+	private volatile long lastLatency;
+	private volatile boolean running;
+
+	private EdtWatchdog(long threshold, long sampleInterval, StallSink sink) {
+		this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+		this.sampleInterval = sampleInterval;
+		this.sink = sink;
+		this.monitor = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				monitor();
+			}
+
+		}, "EDT Watchdog");
+		this.monitor.setDaemon(true);
+	}
+
+	/**
+	 * Installs the watchdog. The sampling interval is a quarter of the
+	 * threshold (between 10 ms and 250 ms).
+	 * 
+	 * @param threshold
+	 *            How long, in milliseconds, the EDT can be busy before it is
+	 *            considered stalled.
+	 * @param sink
+	 *            Where the stalls are reported.
+	 * 
+	 * @return The installed watchdog. If there is one already installed, that
+	 *         one is returned.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code threshold} isn't positive or {@code sink} is
+	 *             {@code null}.
+	 */
+	public static EdtWatchdog install(long threshold, StallSink sink) throws InvalidParameterException {
+		return install(threshold, Math.max(10L, Math.min(250L, threshold / 4)), sink);
+	}
+
+	/**
+	 * Installs the watchdog.
+	 * 
+	 * @param threshold
+	 *            How long, in milliseconds, the EDT can be busy before it is
+	 *            considered stalled.
+	 * @param sampleInterval
+	 *            The time, in milliseconds, between two stack samples.
+	 * @param sink
+	 *            Where the stalls are reported.
+	 * 
+	 * @return The installed watchdog. If there is one already installed, that
+	 *         one is returned.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code threshold} or {@code sampleInterval} aren't
+	 *             positive or {@code sink} is {@code null}.
+	 */
+	public static synchronized EdtWatchdog install(long threshold, long sampleInterval, StallSink sink)
+			throws InvalidParameterException {
+		if ((threshold <= 0) || (sampleInterval <= 0)) {
+			throw new InvalidParameterException(String.format(Locale.ENGLISH,
+					"Wrong times => (threshold = %d, sampleInterval = %d)", threshold, sampleInterval));
+		} else if (sink == null) {
+			throw new InvalidParameterException(new NullPointerException("sink"));
+		}
+
+		if (installed == null) {
+			installed = new EdtWatchdog(threshold, sampleInterval, sink);
+			installed.running = true;
+			installed.monitor.start();
+		}
+
+		return installed;
+	}
+
+	/**
+	 * Gets the installed watchdog.
+	 * 
+	 * @return The watchdog, or {@code null} if none is installed.
+	 */
+	public static synchronized EdtWatchdog getInstalled() {
+		return installed;
+	}
+
+	/** Stops and removes the installed watchdog, if any. */
+	public static synchronized void uninstall() {
+		if (installed != null) {
+			installed.running = false;
+			installed.monitor.interrupt();
+			installed = null;
+		}
+	}
+
+	/*
+	 * The watchdog loop. It runs in its own daemon thread.
+	 */
+	private void monitor() {
+		List<StackTraceElement[]> samples = new ArrayList<StackTraceElement[]>();
+		long stallStart = 0L;
+		long stallStartTime = 0L;
+		boolean reported = false;
+
+		while (running) {
+			long posted = pendingSince;
+			long now = System.nanoTime();
+
+			if (posted == 0L) {
+				if (stallStart != 0L) {
+					report(stallStartTime, lastLatency, false, samples);
+					samples.clear();
+					stallStart = 0L;
+					reported = false;
+				}
+
+				// Without windows the EDT must be free to shut down
+				if (hasDisplayableWindows()) {
+					heartbeat();
+				}
+			} else if ((now - posted) >= threshold) {
+				Thread edt = dispatchThread;
+
+				if (stallStart == 0L) {
+					stallStart = posted;
+					stallStartTime = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(now - posted);
+				}
+
+				if (samples.size() < MAX_SAMPLES) {
+					if (edt != null) {
+						samples.add(edt.getStackTrace());
+					}
+				} else if (!reported) {
+					// A very long (or endless) stall. Report it now, the final
+					// report will come when the EDT is free.
+					report(stallStartTime, TimeUnit.NANOSECONDS.toMillis(now - stallStart), true, samples);
+					reported = true;
+				}
+			}
+
+			try {
+				Thread.sleep(sampleInterval);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	/*
+	 * A heartbeat would keep the EDT alive (or start a new one) and the AWT
+	 * auto-shutdown would never happen, so the JVM couldn't exit.
+	 */
+	private static boolean hasDisplayableWindows() {
+		for (Window window : Window.getWindows()) {
+			if (window.isDisplayable()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/*
+	 * Post a heartbeat to the event queue.
+	 */
+	private void heartbeat() {
+		final long posted = System.nanoTime();
+
+		pendingSince = posted;
+		EventQueue.invokeLater(new Runnable() {
+
+			@Override
+			public void run() {
+				dispatchThread = Thread.currentThread();
+				lastLatency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted);
+				pendingSince = 0L;
+			}
+
+		});
+	}
+
+	/*
+	 * Send the report to the sink. A failing sink must not kill the watchdog.
+	 */
+	private void report(long start, long duration, boolean ongoing, List<StackTraceElement[]> samples) {
+		Thread edt = dispatchThread;
+
+		try {
+			sink.stallDetected(new StallReport((edt != null) ? edt.getName() : null, start, duration, ongoing, samples));
+		} catch (RuntimeException exc) {
+			Logger.getLogger(EdtWatchdog.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.util.Locale;
+
+/**
+ * The latencies of one kind of event (event class, event id and source
+ * component class) recorded by the {@link InstrumentedEventQueue}.
+ * 
+ * @author Cristian Jimenez
+ */
+public final class EventLatencyStats {
+
+	private final Class<?> eventClass;
+	private final int eventId;
+	private final Class<?> sourceClass;
+	private final LatencyHistogram queueWait;
+	private final LatencyHistogram dispatch;
+
+	EventLatencyStats(Class<?> eventClass, int eventId, Class<?> sourceClass) {
+		this.eventClass = eventClass;
+		this.eventId = eventId;
+		this.sourceClass = sourceClass;
+		this.queueWait = new LatencyHistogram();
+		this.dispatch = new LatencyHistogram();
+	}
+
+	/**
+	 * Gets the class of the event.
+	 * 
+	 * @return The event class.
+	 */
+	public Class<?> getEventClass() {
+		return eventClass;
+	}
+
+	/**
+	 * Gets the event id, as in {@link java.awt.AWTEvent#getID()}.
+	 * 
+	 * @return The event id.
+	 */
+	public int getEventId() {
+		return eventId;
+	}
+
+	/**
+	 * Gets the class of the event source.
+	 * 
+	 * @return The source class, or {@code null} if the events have no source.
+	 */
+	public Class<?> getSourceClass() {
+		return sourceClass;
+	}
+
+	/**
+	 * Gets the time the events spent in the queue before being dispatched. Only
+	 * the events with a timestamp (input, invocation and action events) are
+	 * recorded here, with millisecond resolution.
+	 * 
+	 * @return The queue wait histogram.
+	 */
+	public LatencyHistogram getQueueWait() {
+		return queueWait;
+	}
+
+	/**
+	 * Gets the time spent dispatching the events.
+	 * 
+	 * @return The dispatch histogram.
+	 */
+	public LatencyHistogram getDispatch() {
+		return dispatch;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ENGLISH, "%s[id=%d, source=%s]: count=%d, dispatch p50=%dus p99=%dus max=%dus",
+				eventClass.getSimpleName(), eventId, (sourceClass != null) ? sourceClass.getSimpleName() : null,
+				dispatch.getCount(), dispatch.getValueAtPercentile(50.0), dispatch.getValueAtPercentile(99.0),
+				dispatch.getMax());
+	}
+
+}
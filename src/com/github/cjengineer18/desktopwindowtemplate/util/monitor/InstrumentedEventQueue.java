@@ -0,0 +1,211 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.InvocationEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link EventQueue} that records, for each kind of event, how long the
+ * events wait in the queue and how long they take to be dispatched. The
+ * latencies are kept in {@link LatencyHistogram}s.
+ * <p>
+ * The queue is installed on top of the system event queue, so there is only
+ * one per process.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#enableEventQueueInstrumentation()
+ * @see com.github.cjengineer18.desktopwindowtemplate.component.JLatencyIndicator
+ * 
+ * @author Cristian Jimenez
+ */
+public final class InstrumentedEventQueue extends EventQueue {
+
+	private static InstrumentedEventQueue installed;
+
+	private final ConcurrentHashMap<StatsKey, EventLatencyStats> statistics;
+	private final LatencyHistogram totalDispatch;
+	// Only used from the EDT, to look up the statistics without allocating.
+	private final StatsKey probe;
+
+	private InstrumentedEventQueue() {
+		statistics = new ConcurrentHashMap<StatsKey, EventLatencyStats>();
+		totalDispatch = new LatencyHistogram();
+		probe = new StatsKey(null, 0, null);
+	}
+
+	/**
+	 * Installs the instrumented queue, if it isn't installed yet.
+	 * 
+	 * @return The installed queue.
+	 */
+	public static synchronized InstrumentedEventQueue install() {
+		if (installed == null) {
+			installed = new InstrumentedEventQueue();
+			Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed);
+		}
+
+		return installed;
+	}
+
+	/**
+	 * Gets the installed queue.
+	 * 
+	 * @return The queue, or {@code null} if it isn't installed.
+	 */
+	public static synchronized InstrumentedEventQueue getInstalled() {
+		return installed;
+	}
+
+	/** Removes the installed queue, if any. The pending events are kept. */
+	public static synchronized void uninstall() {
+		if (installed != null) {
+			installed.pop();
+			installed = null;
+		}
+	}
+
+	/**
+	 * Gets the statistics of all the kinds of events dispatched until now.
+	 * 
+	 * @return A list with the (live) statistics.
+	 */
+	public List<EventLatencyStats> getStatistics() {
+		return new ArrayList<EventLatencyStats>(statistics.values());
+	}
+
+	/**
+	 * Gets the dispatch latencies of all the events.
+	 * 
+	 * @return The total dispatch histogram.
+	 */
+	public LatencyHistogram getTotalDispatch() {
+		return totalDispatch;
+	}
+
+	/** Removes all the recorded statistics. */
+	public void reset() {
+		statistics.clear();
+		totalDispatch.reset();
+	}
+
+	@Override
+	protected void dispatchEvent(AWTEvent event) {
+		long when = timestampOf(event);
+		long start = System.nanoTime();
+		long wait = (when > 0L) ? (System.currentTimeMillis() - when) : -1L;
+
+		try {
+			super.dispatchEvent(event);
+		} finally {
+			long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+			EventLatencyStats stats = statisticsOf(event);
+
+			stats.getDispatch().record(elapsed);
+			totalDispatch.record(elapsed);
+
+			if (wait >= 0L) {
+				stats.getQueueWait().record(TimeUnit.MILLISECONDS.toMicros(wait));
+			}
+		}
+	}
+
+	/*
+	 * Gets (or creates) the statistics of the event kind.
+	 */
+	private EventLatencyStats statisticsOf(AWTEvent event) {
+		Object source = event.getSource();
+		EventLatencyStats stats;
+
+		probe.eventClass = event.getClass();
+		probe.eventId = event.getID();
+		probe.sourceClass = (source != null) ? source.getClass() : null;
+		stats = statistics.get(probe);
+
+		if (stats == null) {
+			StatsKey key = new StatsKey(probe.eventClass, probe.eventId, probe.sourceClass);
+
+			stats = new EventLatencyStats(key.eventClass, key.eventId, key.sourceClass);
+			statistics.put(key, stats);
+		}
+
+		return stats;
+	}
+
+	/*
+	 * Gets the moment the event was created, or 0 if the event doesn't have
+	 * it.
+	 */
+	private static long timestampOf(AWTEvent event) {
+		if (event instanceof InputEvent) {
+			return ((InputEvent) event).getWhen();
+		} else if (event instanceof InvocationEvent) {
+			return ((InvocationEvent) event).getWhen();
+		} else if (event instanceof ActionEvent) {
+			return ((ActionEvent) event).getWhen();
+		} else {
+			return 0L;
+		}
+	}
+
+	/*
+	 * Statistics key. It is mutable only to be used as a lookup probe.
+	 */
+	private static final class StatsKey {
+
+		private Class<?> eventClass;
+		private int eventId;
+		private Class<?> sourceClass;
+
+		private StatsKey(Class<?> eventClass, int eventId, Class<?> sourceClass) {
+			this.eventClass = eventClass;
+			this.eventId = eventId;
+			this.sourceClass = sourceClass;
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * ((31 * System.identityHashCode(eventClass)) + eventId)) + System.identityHashCode(sourceClass);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof StatsKey)) {
+				return false;
+			} else {
+				StatsKey other = (StatsKey) obj;
+
+				return (eventClass == other.eventClass) && (eventId == other.eventId)
+						&& (sourceClass == other.sourceClass);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,185 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A low overhead latency histogram, in the style of HdrHistogram. The values
+ * (in microseconds) are stored in log-linear buckets with 32 sub-buckets per
+ * power of two, so every recorded value keeps a precision of about 3%.
+ * Recording a value doesn't allocate any object and the histogram can be read
+ * from any thread while it is written.
+ * 
+ * @author Cristian Jimenez
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int MAX_EXPONENT = 35;
+	private static final int BUCKET_COUNT = SUB_COUNT + ((MAX_EXPONENT - SUB_BITS) * SUB_COUNT) + SUB_COUNT;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+	private final AtomicLongArray buckets;
+	private final AtomicLong count;
+	private final AtomicLong sum;
+	private final AtomicLong max;
+
+	/** Creates an empty histogram. */
+	public LatencyHistogram() {
+		buckets = new AtomicLongArray(BUCKET_COUNT);
+		count = new AtomicLong();
+		sum = new AtomicLong();
+		max = new AtomicLong();
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as zero and the values
+	 * above 2<sup>36</sup> - 1 microseconds (about 19 hours) are recorded as
+	 * that maximum trackable value.
+	 * 
+	 * @param micros
+	 *            The latency, in microseconds.
+	 */
+	public void record(long micros) {
+		long value = Math.min(Math.max(micros, 0L), MAX_VALUE);
+		long current;
+
+		buckets.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+
+		do {
+			current = max.get();
+		} while ((value > current) && !max.compareAndSet(current, value));
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 * 
+	 * @return The count.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the maximum recorded value.
+	 * 
+	 * @return The maximum, in microseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the mean of the recorded values.
+	 * 
+	 * @return The mean, in microseconds, or {@code 0} if the histogram is
+	 *         empty.
+	 */
+	public double getMean() {
+		long total = count.get();
+
+		return (total == 0L) ? 0.0 : ((double) sum.get() / total);
+	}
+
+	/**
+	 * Gets the value at the given percentile. The result is the highest value
+	 * of the bucket, so it is never lower than the real value.
+	 * 
+	 * @param percentile
+	 *            The percentile, between {@code 0} and {@code 100}.
+	 * 
+	 * @return The value, in microseconds, or {@code 0} if the histogram is
+	 *         empty.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = count.get();
+		long target;
+		long seen = 0L;
+
+		if (total == 0L) {
+			return 0L;
+		}
+
+		target = Math.max(1L, (long) Math.ceil((Math.min(Math.max(percentile, 0.0), 100.0) / 100.0) * total));
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+
+			if (seen >= target) {
+				return Math.min(highestValueOf(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	/** Removes all the recorded values. */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets.set(i, 0L);
+		}
+
+		count.set(0L);
+		sum.set(0L);
+		max.set(0L);
+	}
+
+	/*
+	 * Gets the bucket of a value. The first SUB_COUNT buckets are exact, then
+	 * each power of two is split in SUB_COUNT buckets.
+	 */
+	private static int indexOf(long value) {
+		int exponent;
+
+		if (value < SUB_COUNT) {
+			return (int) value;
+		}
+
+		exponent = 63 - Long.numberOfLeadingZeros(value);
+
+		return SUB_COUNT + ((exponent - SUB_BITS) * SUB_COUNT)
+				+ (int) ((value >>> (exponent - SUB_BITS)) - SUB_COUNT);
+	}
+
+	/*
+	 * Gets the highest value that falls in a bucket.
+	 */
+	private static long highestValueOf(int index) {
+		int exponent;
+		int sub;
+
+		if (index < SUB_COUNT) {
+			return index;
+		}
+
+		exponent = ((index - SUB_COUNT) / SUB_COUNT) + SUB_BITS;
+		sub = (index - SUB_COUNT) % SUB_COUNT;
+
+		return (((long) (SUB_COUNT + sub + 1)) << (exponent - SUB_BITS)) - 1;
+	}
+
+}
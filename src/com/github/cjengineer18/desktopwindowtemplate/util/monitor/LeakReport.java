@@ -0,0 +1,105 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.io.File;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * A closed window which is still reachable, reported by the
+ * {@link WindowLeakDetector}.
+ * 
+ * @author Cristian Jimenez
+ */
+public final class LeakReport {
+
+	private final String windowClass;
+	private final String title;
+	private final long closedAt;
+	private final long collections;
+	private final File heapDump;
+
+	LeakReport(String windowClass, String title, long closedAt, long collections, File heapDump) {
+		this.windowClass = windowClass;
+		this.title = title;
+		this.closedAt = closedAt;
+		this.collections = collections;
+		this.heapDump = heapDump;
+	}
+
+	/**
+	 * Gets the class name of the leaked window.
+	 * 
+	 * @return The class name.
+	 */
+	public String getWindowClass() {
+		return windowClass;
+	}
+
+	/**
+	 * Gets the title of the leaked window when it was closed.
+	 * 
+	 * @return The title.
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * Gets when the window was closed.
+	 * 
+	 * @return The time, in milliseconds since the epoch.
+	 */
+	public long getClosedAt() {
+		return closedAt;
+	}
+
+	/**
+	 * Gets the number of garbage collections the window survived after being
+	 * closed.
+	 * 
+	 * @return The number of collections.
+	 */
+	public long getCollections() {
+		return collections;
+	}
+
+	/**
+	 * Gets the heap dump taken for this report. Open it in a heap analyzer
+	 * and look for the paths from the GC roots to the window class.
+	 * 
+	 * @return The heap dump, or {@code null} if it wasn't taken.
+	 */
+	public File getHeapDump() {
+		return heapDump;
+	}
+
+	@Override
+	public String toString() {
+		String text = String.format(Locale.ENGLISH, "%s [%s] closed at %tT is still reachable after %d GCs",
+				windowClass, title, new Date(closedAt), collections);
+
+		return (heapDump != null) ? (text + ", heap dump: " + heapDump.getAbsolutePath()) : text;
+	}
+
+}
@@ -0,0 +1,60 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A stall sink that writes the reports into a {@link Logger}.
+ * 
+ * @author Cristian Jimenez
+ */
+public class LoggerStallSink implements StallSink {
+
+	private final Logger logger;
+	private final Level level;
+
+	/** Creates a sink that logs as warnings in the watchdog's logger. */
+	public LoggerStallSink() {
+		this(Logger.getLogger(EdtWatchdog.class.getName()), Level.WARNING);
+	}
+
+	/**
+	 * Creates a sink that logs into the given logger.
+	 * 
+	 * @param logger
+	 *            The logger.
+	 * @param level
+	 *            The level of the messages.
+	 */
+	public LoggerStallSink(Logger logger, Level level) {
+		this.logger = logger;
+		this.level = level;
+	}
+
+	@Override
+	public void stallDetected(StallReport report) {
+		logger.log(level, report.toString());
+	}
+
+}
@@ -0,0 +1,153 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A stall of the Event Dispatch Thread, with the stack samples taken while the
+ * thread was blocked.
+ * 
+ * @see EdtWatchdog
+ * 
+ * @author Cristian Jimenez
+ */
+public final class StallReport {
+
+	private final String threadName;
+	private final long startTime;
+	private final long duration;
+	private final boolean ongoing;
+	private final List<StackTraceElement[]> samples;
+
+	StallReport(String threadName, long startTime, long duration, boolean ongoing, List<StackTraceElement[]> samples) {
+		this.threadName = threadName;
+		this.startTime = startTime;
+		this.duration = duration;
+		this.ongoing = ongoing;
+		this.samples = Collections.unmodifiableList(new ArrayList<StackTraceElement[]>(samples));
+	}
+
+	/**
+	 * Gets the name of the stalled thread.
+	 * 
+	 * @return The thread name, or {@code null} if the thread was never seen.
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * Gets when the stall began.
+	 * 
+	 * @return The start time, in milliseconds since the epoch.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Gets how long the thread was stalled. If the stall is still ongoing, this
+	 * is the time elapsed until the report was created.
+	 * 
+	 * @return The duration, in milliseconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Checks if the thread was still stalled when this report was created.
+	 * 
+	 * @return {@code true} if the stall didn't finish yet.
+	 */
+	public boolean isOngoing() {
+		return ongoing;
+	}
+
+	/**
+	 * Gets the stack samples, from the oldest to the newest.
+	 * 
+	 * @return An unmodifiable list of stack traces.
+	 */
+	public List<StackTraceElement[]> getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Gets the frame that appears most times at the top of the samples. This
+	 * is usually the code that was blocking the thread.
+	 * 
+	 * @return The hottest frame, or {@code null} if there are no samples.
+	 */
+	public StackTraceElement getHottestFrame() {
+		Map<StackTraceElement, Integer> counts = new HashMap<StackTraceElement, Integer>();
+		StackTraceElement hottest = null;
+		int max = 0;
+
+		for (StackTraceElement[] sample : samples) {
+			if (sample.length > 0) {
+				Integer count = counts.get(sample[0]);
+				int value = (count == null) ? 1 : count + 1;
+
+				counts.put(sample[0], value);
+
+				if (value > max) {
+					max = value;
+					hottest = sample[0];
+				}
+			}
+		}
+
+		return hottest;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		StackTraceElement hottest = getHottestFrame();
+
+		builder.append(String.format(Locale.ENGLISH, "EDT stall of %d ms%s on thread \"%s\" (started %s, %d samples)",
+				duration, ongoing ? " (ongoing)" : "", threadName, new Date(startTime), samples.size()));
+
+		if (hottest != null) {
+			builder.append(System.lineSeparator()).append("Hottest frame: ").append(hottest);
+		}
+
+		if (!samples.isEmpty()) {
+			builder.append(System.lineSeparator()).append("Last sample:");
+
+			for (StackTraceElement element : samples.get(samples.size() - 1)) {
+				builder.append(System.lineSeparator()).append("\tat ").append(element);
+			}
+		}
+
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,114 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.util.Locale;
+
+/**
+ * A timed phase of the window startup.
+ * 
+ * @see StartupTrace
+ * 
+ * @author Cristian Jimenez
+ */
+public final class StartupPhase {
+
+	private final String name;
+	private final long offset;
+	private final long duration;
+	private final long allocatedBytes;
+	private final boolean layoutPass;
+	private final boolean redundant;
+
+	StartupPhase(String name, long offset, long duration, long allocatedBytes, boolean layoutPass,
+			boolean redundant) {
+		this.name = name;
+		this.offset = offset;
+		this.duration = duration;
+		this.allocatedBytes = allocatedBytes;
+		this.layoutPass = layoutPass;
+		this.redundant = redundant;
+	}
+
+	/**
+	 * Gets the phase name.
+	 * 
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets when the phase began, since the start of the trace.
+	 * 
+	 * @return The offset, in microseconds.
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the wall time of the phase.
+	 * 
+	 * @return The duration, in microseconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Gets the memory allocated by the thread during the phase.
+	 * 
+	 * @return The allocated bytes, or {@code -1} if the JVM can't measure it
+	 *         (or the phase began and ended in different threads).
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Checks if the phase did a full layout of the window ({@code pack()}).
+	 * 
+	 * @return {@code true} if it is a layout pass.
+	 */
+	public boolean isLayoutPass() {
+		return layoutPass;
+	}
+
+	/**
+	 * Checks if the phase is a layout pass done after another one, which is
+	 * usually wasted time.
+	 * 
+	 * @return {@code true} if the layout pass is redundant.
+	 */
+	public boolean isRedundant() {
+		return redundant;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ENGLISH, "%s: %.3f ms (+%.3f ms), %d bytes%s", name, duration / 1000.0,
+				offset / 1000.0, allocatedBytes, redundant ? " [redundant layout]" : "");
+	}
+
+}
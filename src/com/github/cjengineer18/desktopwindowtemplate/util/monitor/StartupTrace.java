@@ -0,0 +1,115 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The timed phases of a window startup, from the beginning of
+ * {@code loadWorkArea} until the window is completely shown.
+ * 
+ * @see StartupTracer
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#getStartupTrace()
+ * 
+ * @author Cristian Jimenez
+ */
+public final class StartupTrace {
+
+	private final String windowName;
+	private final long total;
+	private final List<StartupPhase> phases;
+
+	StartupTrace(String windowName, long total, List<StartupPhase> phases) {
+		this.windowName = windowName;
+		this.total = total;
+		this.phases = Collections.unmodifiableList(new ArrayList<StartupPhase>(phases));
+	}
+
+	/**
+	 * Gets the name of the traced window class.
+	 * 
+	 * @return The class name.
+	 */
+	public String getWindowName() {
+		return windowName;
+	}
+
+	/**
+	 * Gets the total wall time of the startup.
+	 * 
+	 * @return The total time, in microseconds.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the phases, in execution order.
+	 * 
+	 * @return An unmodifiable list of phases.
+	 */
+	public List<StartupPhase> getPhases() {
+		return phases;
+	}
+
+	/**
+	 * Gets how many full layout passes were done.
+	 * 
+	 * @return The number of layout passes.
+	 */
+	public int getLayoutPasses() {
+		int passes = 0;
+
+		for (StartupPhase phase : phases) {
+			if (phase.isLayoutPass()) {
+				passes++;
+			}
+		}
+
+		return passes;
+	}
+
+	/**
+	 * Checks if the startup did more than one layout pass.
+	 * 
+	 * @return {@code true} if there are redundant layout passes.
+	 */
+	public boolean hasRedundantLayout() {
+		return getLayoutPasses() > 1;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(String.format(Locale.ENGLISH,
+				"Startup of %s: %.3f ms, %d layout passes", windowName, total / 1000.0, getLayoutPasses()));
+
+		for (StartupPhase phase : phases) {
+			builder.append(System.lineSeparator()).append('\t').append(phase);
+		}
+
+		return builder.toString();
+	}
+
+}
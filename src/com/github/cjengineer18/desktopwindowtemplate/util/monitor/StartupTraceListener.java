@@ -0,0 +1,55 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.awt.Window;
+
+/**
+ * Listens the startup phases of the windows.
+ * 
+ * @see StartupTracer#addListener(StartupTraceListener)
+ * 
+ * @author Cristian Jimenez
+ */
+public interface StartupTraceListener {
+
+	/**
+	 * Called when a startup phase ends, in the thread which ran the phase.
+	 * 
+	 * @param window
+	 *            The window being loaded.
+	 * @param phase
+	 *            The finished phase.
+	 */
+	void phaseCompleted(Window window, StartupPhase phase);
+
+	/**
+	 * Called when the window is completely loaded and shown.
+	 * 
+	 * @param window
+	 *            The loaded window.
+	 * @param trace
+	 *            All the phases of the startup.
+	 */
+	void startupCompleted(Window window, StartupTrace trace);
+
+}
@@ -0,0 +1,227 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.awt.Window;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the phases of a window startup. Every window records its own trace;
+ * the listeners added here receive the phases of all the windows.
+ * <p>
+ * The allocated memory is measured with the HotSpot thread bean, when the JVM
+ * supports it.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#getStartupTrace()
+ * 
+ * @author Cristian Jimenez
+ */
+public final class StartupTracer {
+
+	private static final List<StartupTraceListener> listeners = new CopyOnWriteArrayList<StartupTraceListener>();
+	private static final com.sun.management.ThreadMXBean threadBean = allocationBean();
+
+	private final Window window;
+	private final List<StartupPhase> phases;
+	private final long start;
+
+	private String phaseName;
+	private Thread phaseThread;
+	private long phaseStart;
+	private long phaseAllocation;
+	private boolean phaseLayout;
+	private int layoutPasses;
+
+	private StartupTracer(Window window) {
+		this.window = window;
+		this.phases = new ArrayList<StartupPhase>();
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * Adds a listener for the startup of all the windows.
+	 * 
+	 * @param listener
+	 *            The listener. {@code null} is ignored.
+	 */
+	public static void addListener(StartupTraceListener listener) {
+		if (listener != null) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener
+	 *            The listener to remove.
+	 */
+	public static void removeListener(StartupTraceListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts the trace of a window.
+	 * 
+	 * @param window
+	 *            The window to trace.
+	 * 
+	 * @return A new tracer.
+	 */
+	public static StartupTracer start(Window window) {
+		return new StartupTracer(window);
+	}
+
+	/**
+	 * Begins a phase. If there is a phase already running, it ends first.
+	 * 
+	 * @param name
+	 *            The phase name.
+	 */
+	public void begin(String name) {
+		begin(name, false);
+	}
+
+	/**
+	 * Begins a phase which does a full layout of the window. Every layout pass
+	 * after the first one is marked as redundant.
+	 * 
+	 * @param name
+	 *            The phase name.
+	 */
+	public void beginLayout(String name) {
+		begin(name, true);
+	}
+
+	/**
+	 * Ends the running phase and notifies the listeners.
+	 * 
+	 * @return The finished phase, or {@code null} if there isn't any phase
+	 *         running.
+	 */
+	public StartupPhase end() {
+		StartupPhase phase;
+
+		synchronized (this) {
+			if (phaseName == null) {
+				return null;
+			}
+
+			long now = System.nanoTime();
+			long allocated = (phaseThread == Thread.currentThread()) ? allocatedBytes() : -1L;
+
+			if (phaseLayout) {
+				layoutPasses++;
+			}
+
+			phase = new StartupPhase(phaseName, TimeUnit.NANOSECONDS.toMicros(phaseStart - start),
+					TimeUnit.NANOSECONDS.toMicros(now - phaseStart),
+					((allocated >= 0L) && (phaseAllocation >= 0L)) ? (allocated - phaseAllocation) : -1L,
+					phaseLayout, phaseLayout && (layoutPasses > 1));
+			phases.add(phase);
+			phaseName = null;
+		}
+
+		for (StartupTraceListener listener : listeners) {
+			try {
+				listener.phaseCompleted(window, phase);
+			} catch (RuntimeException exc) {
+				Logger.getLogger(StartupTracer.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			}
+		}
+
+		return phase;
+	}
+
+	/**
+	 * Ends the trace and notifies the listeners.
+	 * 
+	 * @return The complete trace.
+	 */
+	public StartupTrace finish() {
+		StartupTrace trace;
+
+		end();
+
+		synchronized (this) {
+			trace = new StartupTrace(window.getClass().getName(),
+					TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), phases);
+		}
+
+		for (StartupTraceListener listener : listeners) {
+			try {
+				listener.startupCompleted(window, trace);
+			} catch (RuntimeException exc) {
+				Logger.getLogger(StartupTracer.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			}
+		}
+
+		return trace;
+	}
+
+	/*
+	 * End the running phase (if any) and begin a new one.
+	 */
+	private void begin(String name, boolean layout) {
+		end();
+
+		synchronized (this) {
+			phaseName = name;
+			phaseLayout = layout;
+			phaseThread = Thread.currentThread();
+			phaseAllocation = allocatedBytes();
+			phaseStart = System.nanoTime();
+		}
+	}
+
+	/*
+	 * Bytes allocated by the current thread, or -1 if not supported.
+	 */
+	private static long allocatedBytes() {
+		return (threadBean != null) ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1L;
+	}
+
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		try {
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+
+				if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+					return hotspot;
+				}
+			}
+		} catch (LinkageError | SecurityException exc) {
+			// Not a HotSpot JVM, the allocations won't be measured.
+		}
+
+		return null;
+	}
+
+}
@@ -0,0 +1,396 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.monitor;
+
+import java.awt.Frame;
+import java.awt.Window;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Detects the closed windows that are never garbage collected. Every window is
+ * weakly tracked after {@code windowClosed}; a window still reachable after
+ * the given number of garbage collections is reported to the sink, because
+ * something (a static listener, a long-lived task, a cache...) keeps it alive.
+ * <p>
+ * Only the collections that reclaim the old generation are counted: the
+ * major (full or old generation) ones, the cycles of the collectors without
+ * generations, and the ones which leave the old generation smaller than they
+ * found it, like the mixed collections of G1 (reported as minor ones). A
+ * closed window is soon promoted to the old generation, so the young
+ * collections, many per second in a busy application, can't collect it and
+ * would report it before it had any chance.
+ * <p>
+ * Optionally, a heap dump is written with the first report, so the path from
+ * the GC roots to the window can be found with a heap analyzer. Only one dump
+ * is written, because it stops the application while it is written.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#processWindowEvent(java.awt.event.WindowEvent)
+ * 
+ * @author Cristian Jimenez
+ */
+public final class WindowLeakDetector {
+
+	private static final long CHECK_INTERVAL = 5000L;
+
+	/** The action of the end of an old generation or full collection. */
+	private static final String MAJOR_GC = "end of major GC";
+
+	/**
+	 * The action of the end of a cycle of a collector without generations
+	 * (ZGC, Shenandoah), which always collects the whole heap.
+	 */
+	private static final String GC_CYCLE = "end of GC cycle";
+
+	private static WindowLeakDetector installed;
+
+	private final int gcCycles;
+	private final LeakSink sink;
+	private final File dumpDirectory;
+	private final ReferenceQueue<Window> queue;
+	private final Set<ClosedWindow> tracked;
+	private final Thread monitor;
+	private final AtomicLong oldCollections;
+	private final NotificationListener gcListener;
+	private volatile boolean running;
+	private boolean dumped;
+
+	private WindowLeakDetector(int gcCycles, LeakSink sink, File dumpDirectory) {
+		this.gcCycles = gcCycles;
+		this.sink = sink;
+		this.dumpDirectory = dumpDirectory;
+		this.queue = new ReferenceQueue<Window>();
+		this.tracked = new HashSet<ClosedWindow>();
+		this.monitor = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				monitor();
+			}
+
+		}, "Window Leak Detector");
+		this.monitor.setDaemon(true);
+		this.oldCollections = new AtomicLong();
+		this.gcListener = new NotificationListener() {
+
+			@Override
+			public void handleNotification(Notification notification, Object handback) {
+				if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+					GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+							.from((CompositeData) notification.getUserData());
+					String action = info.getGcAction();
+
+					if (MAJOR_GC.equals(action) || GC_CYCLE.equals(action)
+							|| reclaimedOldGeneration(info.getGcInfo())) {
+						oldCollections.incrementAndGet();
+					}
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Installs the detector, without heap dumps. If a detector is already
+	 * installed, that one is returned.
+	 * 
+	 * @param gcCycles
+	 *            The number of garbage collections of the old generation
+	 *            (full, old generation, or mixed ones, not the young ones) a
+	 *            closed window can survive before being reported.
+	 * @param sink
+	 *            Where the leaks will be reported.
+	 * 
+	 * @return The installed detector.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code gcCycles} isn't positive or {@code sink} is
+	 *             {@code null}.
+	 */
+	public static WindowLeakDetector install(int gcCycles, LeakSink sink) throws InvalidParameterException {
+		return install(gcCycles, sink, null);
+	}
+
+	/**
+	 * Installs the detector. If a detector is already installed, that one is
+	 * returned.
+	 * 
+	 * @param gcCycles
+	 *            The number of garbage collections of the old generation
+	 *            (full, old generation, or mixed ones, not the young ones) a
+	 *            closed window can survive before being reported.
+	 * @param sink
+	 *            Where the leaks will be reported.
+	 * @param dumpDirectory
+	 *            Where the heap dump of the first leak is written, or
+	 *            {@code null} to not write heap dumps.
+	 * 
+	 * @return The installed detector.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code gcCycles} isn't positive or {@code sink} is
+	 *             {@code null}.
+	 */
+	public static synchronized WindowLeakDetector install(int gcCycles, LeakSink sink, File dumpDirectory)
+			throws InvalidParameterException {
+		if (gcCycles <= 0) {
+			throw new InvalidParameterException(
+					String.format(Locale.ENGLISH, "Wrong GC cycles => (gcCycles = %d)", gcCycles));
+		} else if (sink == null) {
+			throw new InvalidParameterException(new NullPointerException("sink"));
+		}
+
+		if (installed == null) {
+			installed = new WindowLeakDetector(gcCycles, sink, dumpDirectory);
+			installed.running = true;
+			installed.listenCollections(true);
+			installed.monitor.start();
+		}
+
+		return installed;
+	}
+
+	/**
+	 * Gets the installed detector.
+	 * 
+	 * @return The detector, or {@code null} if it isn't installed.
+	 */
+	public static synchronized WindowLeakDetector getInstalled() {
+		return installed;
+	}
+
+	/** Stops and removes the installed detector, if any. */
+	public static synchronized void uninstall() {
+		if (installed != null) {
+			installed.running = false;
+			installed.listenCollections(false);
+			installed.monitor.interrupt();
+			installed = null;
+		}
+	}
+
+	/**
+	 * Starts tracking a closed window. This is invoked by the window itself,
+	 * when it is closed.
+	 * 
+	 * @param window
+	 *            The closed window.
+	 */
+	public void track(Window window) {
+		String title = (window instanceof Frame) ? ((Frame) window).getTitle() : window.getName();
+		ClosedWindow closed = new ClosedWindow(window, queue, title, oldCollections.get());
+
+		synchronized (tracked) {
+			tracked.add(closed);
+		}
+	}
+
+	/**
+	 * Gets the number of closed windows not collected yet.
+	 * 
+	 * @return The number of tracked windows.
+	 */
+	public int getTrackedCount() {
+		synchronized (tracked) {
+			return tracked.size();
+		}
+	}
+
+	/*
+	 * Forget the collected windows and report the ones that survived too many
+	 * collections, only once each.
+	 */
+	private void monitor() {
+		while (running) {
+			List<LeakReport> reports = new ArrayList<LeakReport>();
+			long collections = oldCollections.get();
+			Object collected;
+
+			while ((collected = queue.poll()) != null) {
+				synchronized (tracked) {
+					tracked.remove(collected);
+				}
+			}
+
+			synchronized (tracked) {
+				Iterator<ClosedWindow> iterator = tracked.iterator();
+
+				while (iterator.hasNext()) {
+					ClosedWindow closed = iterator.next();
+					Window window = closed.get();
+					long survived = collections - closed.collections;
+
+					if ((window == null) || window.isDisplayable()) {
+						// Collected, or shown again: it will be tracked again
+						// when it is closed
+						iterator.remove();
+					} else if (!closed.reported && (survived >= gcCycles)) {
+						closed.reported = true;
+						reports.add(new LeakReport(closed.windowClass, closed.title, closed.closedAt, survived,
+								null));
+					}
+				}
+			}
+
+			for (LeakReport report : reports) {
+				File dump = dumpHeap();
+
+				if (dump != null) {
+					report = new LeakReport(report.getWindowClass(), report.getTitle(), report.getClosedAt(),
+							report.getCollections(), dump);
+				}
+
+				try {
+					sink.leakSuspected(report);
+				} catch (RuntimeException exc) {
+					Logger.getLogger(WindowLeakDetector.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+				}
+			}
+
+			try {
+				Thread.sleep(CHECK_INTERVAL);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	/*
+	 * Write the first heap dump, if enabled. Only the live objects are
+	 * dumped.
+	 */
+	private File dumpHeap() {
+		File dump = null;
+
+		if ((dumpDirectory != null) && !dumped) {
+			dumped = true;
+			dump = new File(dumpDirectory, String.format(Locale.ENGLISH, "window-leak-%d.hprof",
+					System.currentTimeMillis()));
+
+			try {
+				if (!dumpDirectory.isDirectory() && !dumpDirectory.mkdirs()) {
+					throw new IOException("Can't create " + dumpDirectory);
+				}
+
+				ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).dumpHeap(dump.getAbsolutePath(),
+						true);
+			} catch (IOException | RuntimeException exc) {
+				Logger.getLogger(WindowLeakDetector.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+				dump = null;
+			}
+		}
+
+		return dump;
+	}
+
+	/*
+	 * A collection that freed space of the old generation pool ("G1 Old Gen",
+	 * "PS Old Gen", "Tenured Gen"...). The young collections only promote
+	 * objects to it.
+	 */
+	private static boolean reclaimedOldGeneration(GcInfo gcInfo) {
+		Map<String, MemoryUsage> after = gcInfo.getMemoryUsageAfterGc();
+
+		for (Map.Entry<String, MemoryUsage> before : gcInfo.getMemoryUsageBeforeGc().entrySet()) {
+			String pool = before.getKey();
+
+			if ((pool.contains("Old") || pool.contains("Tenured")) && after.containsKey(pool)
+					&& (after.get(pool).getUsed() < before.getValue().getUsed())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/*
+	 * Start or stop counting the old generation collections. The collectors notify the
+	 * end of every collection, with its kind.
+	 */
+	private void listenCollections(boolean listen) {
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (collector instanceof NotificationEmitter) {
+				NotificationEmitter emitter = (NotificationEmitter) collector;
+
+				if (listen) {
+					emitter.addNotificationListener(gcListener, null, null);
+				} else {
+					try {
+						emitter.removeNotificationListener(gcListener);
+					} catch (ListenerNotFoundException lnfe) {
+						// It wasn't listening to this collector
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * A weak reference to a closed window, with what is needed to report it
+	 * without keeping it alive.
+	 */
+	private static final class ClosedWindow extends WeakReference<Window> {
+
+		private final String windowClass;
+		private final String title;
+		private final long closedAt;
+		private final long collections;
+		private boolean reported;
+
+		private ClosedWindow(Window window, ReferenceQueue<Window> queue, String title, long collections) {
+			super(window, queue);
+			this.windowClass = window.getClass().getName();
+			this.title = title;
+			this.closedAt = System.currentTimeMillis();
+			this.collections = collections;
+		}
+
+	}
+
+}
@@ -0,0 +1,398 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.state;
+
+import java.util.BitSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * A store of window state in indexed slots, the typed alternative to
+ * {@code singleGetter(int)} and {@code singleSetter(int, Object)}. The
+ * primitive values ({@code int}, {@code long}, {@code double} and
+ * {@code boolean}) are kept unboxed, so setting them doesn't create garbage,
+ * and each slot can also hold an object. The slots can be read and written
+ * from any thread.
+ * <p>
+ * Only the slots whose value really changes are marked as changed, and the
+ * listeners are notified once, in the Event Dispatch Thread, for all the slots
+ * changed in the meantime.
+ * 
+ * @see StateSlotsListener
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#createStateSlots(int)
+ * 
+ * @author Cristian Jimenez
+ */
+public final class StateSlots {
+
+	private final int size;
+	private final AtomicLongArray primitives;
+	private final AtomicReferenceArray<Object> objects;
+	private final AtomicLongArray dirty;
+	private final AtomicBoolean scheduled;
+	private final CopyOnWriteArrayList<StateSlotsListener> listeners;
+	private final Runnable notifier;
+
+	/**
+	 * Creates a store.
+	 * 
+	 * @param size
+	 *            The number of slots.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code size} isn't positive.
+	 */
+	public StateSlots(int size) throws InvalidParameterException {
+		if (size <= 0) {
+			throw new InvalidParameterException("The number of slots must be positive!");
+		}
+
+		this.size = size;
+		this.primitives = new AtomicLongArray(size);
+		this.objects = new AtomicReferenceArray<Object>(size);
+		this.dirty = new AtomicLongArray((size + 63) >>> 6);
+		this.scheduled = new AtomicBoolean();
+		this.listeners = new CopyOnWriteArrayList<StateSlotsListener>();
+		this.notifier = new Runnable() {
+
+			@Override
+			public void run() {
+				notifyListeners();
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the number of slots.
+	 * 
+	 * @return The number of slots.
+	 */
+	public int size() {
+		return size;
+	}
+
+	// Primitive slots
+
+	/**
+	 * Gets an {@code int} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * 
+	 * @return The value, {@code 0} by default.
+	 */
+	public int getInt(int index) {
+		return (int) primitives.get(index);
+	}
+
+	/**
+	 * Sets an {@code int} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * @param value
+	 *            The new value.
+	 */
+	public void setInt(int index, int value) {
+		setBits(index, value);
+	}
+
+	/**
+	 * Gets a {@code long} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * 
+	 * @return The value, {@code 0} by default.
+	 */
+	public long getLong(int index) {
+		return primitives.get(index);
+	}
+
+	/**
+	 * Sets a {@code long} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * @param value
+	 *            The new value.
+	 */
+	public void setLong(int index, long value) {
+		setBits(index, value);
+	}
+
+	/**
+	 * Gets a {@code double} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * 
+	 * @return The value, {@code 0.0} by default.
+	 */
+	public double getDouble(int index) {
+		return Double.longBitsToDouble(primitives.get(index));
+	}
+
+	/**
+	 * Sets a {@code double} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * @param value
+	 *            The new value.
+	 */
+	public void setDouble(int index, double value) {
+		setBits(index, Double.doubleToLongBits(value));
+	}
+
+	/**
+	 * Gets a {@code boolean} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * 
+	 * @return The value, {@code false} by default.
+	 */
+	public boolean getBoolean(int index) {
+		return primitives.get(index) != 0L;
+	}
+
+	/**
+	 * Sets a {@code boolean} slot.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * @param value
+	 *            The new value.
+	 */
+	public void setBoolean(int index, boolean value) {
+		setBits(index, value ? 1L : 0L);
+	}
+
+	// Object slots
+
+	/**
+	 * Gets an object slot.
+	 * 
+	 * @param <T>
+	 *            The object class.
+	 * @param index
+	 *            The slot index.
+	 * 
+	 * @return The object, {@code null} by default.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getObject(int index) {
+		return (T) objects.get(index);
+	}
+
+	/**
+	 * Sets an object slot. The slot is changed only if the new object isn't
+	 * the same instance than the old one.
+	 * 
+	 * @param index
+	 *            The slot index.
+	 * @param value
+	 *            The new object.
+	 */
+	public void setObject(int index, Object value) {
+		if (objects.getAndSet(index, value) != value) {
+			markDirty(index);
+		}
+	}
+
+	// Bulk access
+
+	/**
+	 * Copies consecutive {@code int} slots into an array.
+	 * 
+	 * @param fromIndex
+	 *            The first slot index.
+	 * @param destination
+	 *            The array to fill, from its first position.
+	 */
+	public void getInts(int fromIndex, int[] destination) {
+		for (int i = 0; i < destination.length; i++) {
+			destination[i] = (int) primitives.get(fromIndex + i);
+		}
+	}
+
+	/**
+	 * Sets consecutive {@code int} slots. The listeners are notified once for
+	 * all of them.
+	 * 
+	 * @param fromIndex
+	 *            The first slot index.
+	 * @param values
+	 *            The new values.
+	 */
+	public void setInts(int fromIndex, int[] values) {
+		for (int i = 0; i < values.length; i++) {
+			setBits(fromIndex + i, values[i]);
+		}
+	}
+
+	/**
+	 * Copies consecutive {@code long} slots into an array.
+	 * 
+	 * @param fromIndex
+	 *            The first slot index.
+	 * @param destination
+	 *            The array to fill, from its first position.
+	 */
+	public void getLongs(int fromIndex, long[] destination) {
+		for (int i = 0; i < destination.length; i++) {
+			destination[i] = primitives.get(fromIndex + i);
+		}
+	}
+
+	/**
+	 * Sets consecutive {@code long} slots. The listeners are notified once for
+	 * all of them.
+	 * 
+	 * @param fromIndex
+	 *            The first slot index.
+	 * @param values
+	 *            The new values.
+	 */
+	public void setLongs(int fromIndex, long[] values) {
+		for (int i = 0; i < values.length; i++) {
+			setBits(fromIndex + i, values[i]);
+		}
+	}
+
+	/**
+	 * Copies consecutive {@code double} slots into an array.
+	 * 
+	 * @param fromIndex
+	 *            The first slot index.
+	 * @param destination
+	 *            The array to fill, from its first position.
+	 */
+	public void getDoubles(int fromIndex, double[] destination) {
+		for (int i = 0; i < destination.length; i++) {
+			destination[i] = Double.longBitsToDouble(primitives.get(fromIndex + i));
+		}
+	}
+
+	/**
+	 * Sets consecutive {@code double} slots. The listeners are notified once
+	 * for all of them.
+	 * 
+	 * @param fromIndex
+	 *            The first slot index.
+	 * @param values
+	 *            The new values.
+	 */
+	public void setDoubles(int fromIndex, double[] values) {
+		for (int i = 0; i < values.length; i++) {
+			setBits(fromIndex + i, Double.doubleToLongBits(values[i]));
+		}
+	}
+
+	// Listeners
+
+	/**
+	 * Adds a listener.
+	 * 
+	 * @param listener
+	 *            The listener to add.
+	 */
+	public void addListener(StateSlotsListener listener) {
+		if (listener != null) {
+			listeners.addIfAbsent(listener);
+		}
+	}
+
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener
+	 *            The listener to remove.
+	 */
+	public void removeListener(StateSlotsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/*
+	 * Set the raw bits of a primitive slot, marking it only if it changes.
+	 */
+	private void setBits(int index, long bits) {
+		if (primitives.getAndSet(index, bits) != bits) {
+			markDirty(index);
+		}
+	}
+
+	/*
+	 * Set the bit of the slot and schedule one notification for all the
+	 * changes until it runs.
+	 */
+	private void markDirty(int index) {
+		int word = index >>> 6;
+		long mask = 1L << index;
+		long old;
+
+		do {
+			old = dirty.get(word);
+		} while (((old & mask) == 0L) && !dirty.compareAndSet(word, old, old | mask));
+
+		if (!listeners.isEmpty() && scheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(notifier);
+		}
+	}
+
+	/*
+	 * Take the changed slots and notify the listeners. Always in the EDT.
+	 */
+	private void notifyListeners() {
+		BitSet changed;
+		long[] words = new long[dirty.length()];
+
+		scheduled.set(false);
+
+		for (int i = 0; i < words.length; i++) {
+			words[i] = dirty.getAndSet(i, 0L);
+		}
+
+		changed = BitSet.valueOf(words);
+
+		if (!changed.isEmpty()) {
+			for (StateSlotsListener listener : listeners) {
+				try {
+					listener.slotsChanged(this, changed);
+				} catch (RuntimeException exc) {
+					Logger.getLogger(StateSlots.class.getName()).log(Level.SEVERE, exc.getMessage(), exc);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.state;
+
+import java.util.BitSet;
+
+/**
+ * Receives the changes of a {@link StateSlots}. The changes are coalesced: the
+ * listener is notified once, in the Event Dispatch Thread, for all the slots
+ * changed since the last notification, no matter how many times each slot was
+ * set.
+ * 
+ * @author Cristian Jimenez
+ */
+public interface StateSlotsListener {
+
+	/**
+	 * Called in the Event Dispatch Thread when some slots have changed.
+	 * 
+	 * @param slots
+	 *            The changed store. The current values can be read from it.
+	 * @param changed
+	 *            The indexes of the changed slots.
+	 */
+	void slotsChanged(StateSlots slots, BitSet changed);
+
+}
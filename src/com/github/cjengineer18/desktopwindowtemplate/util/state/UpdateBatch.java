@@ -0,0 +1,54 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.state;
+
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidCommandException;
+
+/**
+ * The setter of a batch of window updates. In the Event Dispatch Thread, every
+ * call goes straight to the window's {@code singleSetter(int, Object)}; from
+ * other threads the values are recorded and applied later, keeping only the
+ * last value of each index.
+ * 
+ * @see WindowUpdate
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#update(WindowUpdate)
+ * 
+ * @author Cristian Jimenez
+ */
+public interface UpdateBatch {
+
+	/**
+	 * Sets a window object as part of the batch.
+	 * 
+	 * @param objectIndex
+	 *            Object index. It must be a constant.
+	 * @param newObject
+	 *            The new object to assign.
+	 * 
+	 * @throws InvalidCommandException
+	 *             If {@code objectIndex} doesn't match any valid index. Only
+	 *             thrown when the batch is applied in the Event Dispatch
+	 *             Thread.
+	 */
+	void set(int objectIndex, Object newObject) throws InvalidCommandException;
+
+}
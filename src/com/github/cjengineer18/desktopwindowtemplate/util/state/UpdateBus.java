@@ -0,0 +1,295 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.state;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.github.cjengineer18.desktopwindowtemplate.JGenericWindow;
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidCommandException;
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * A frame rate limited update bus for a window fed by a high frequency data
+ * source. The updates can be posted from any thread, without locks, into one
+ * slot per key; a value that isn't shown yet is just replaced by the newer one.
+ * The bus applies the pending values through the window's
+ * {@code singleSetter(int, Object)} in the Event Dispatch Thread, at most once
+ * per frame, with one layout and repaint per frame. So the EDT work depends on
+ * the frame rate, not on the rate of the data.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#enableUpdateBus(int, int)
+ * 
+ * @author Cristian Jimenez
+ */
+public final class UpdateBus {
+
+	private static final Object EMPTY = new Object();
+
+	private final JGenericWindow window;
+	private final AtomicReferenceArray<Object> slots;
+	private final AtomicLongArray dirty;
+	private final AtomicBoolean active;
+	private final Timer timer;
+	private final Runnable starter;
+	private volatile boolean stopped;
+	private volatile boolean paused;
+
+	/**
+	 * Creates a bus.
+	 * 
+	 * @param window
+	 *            The updated window.
+	 * @param keys
+	 *            The number of keys (the object indexes of the window go from
+	 *            {@code 0} to {@code keys - 1}).
+	 * @param framesPerSecond
+	 *            The maximum number of flushes per second.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code window} is {@code null}, or {@code keys} or
+	 *             {@code framesPerSecond} aren't positive.
+	 */
+	public UpdateBus(JGenericWindow window, int keys, int framesPerSecond) throws InvalidParameterException {
+		if (window == null) {
+			throw new InvalidParameterException(new NullPointerException("window"));
+		} else if (keys <= 0) {
+			throw new InvalidParameterException("The number of keys must be positive!");
+		}
+
+		this.window = window;
+		this.slots = new AtomicReferenceArray<Object>(keys);
+		this.dirty = new AtomicLongArray((keys + 63) >>> 6);
+		this.active = new AtomicBoolean();
+		this.timer = new Timer(1000, new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				flush();
+			}
+
+		});
+		this.starter = new Runnable() {
+
+			@Override
+			public void run() {
+				if (!stopped && !paused && !timer.isRunning()) {
+					timer.start();
+				}
+			}
+
+		};
+
+		for (int i = 0; i < keys; i++) {
+			slots.set(i, EMPTY);
+		}
+
+		setFramesPerSecond(framesPerSecond);
+	}
+
+	/**
+	 * Posts a new value for a key. It can be invoked from any thread, and
+	 * never blocks. If the previous value of the key wasn't applied yet, it is
+	 * dropped.
+	 * 
+	 * @param key
+	 *            The object index in the window.
+	 * @param value
+	 *            The new value.
+	 */
+	public void post(int key, Object value) {
+		if ((slots.getAndSet(key, value) == EMPTY) && !stopped) {
+			int word = key >>> 6;
+			long mask = 1L << key;
+			long old;
+
+			do {
+				old = dirty.get(word);
+			} while (((old & mask) == 0L) && !dirty.compareAndSet(word, old, old | mask));
+
+			if (active.compareAndSet(false, true)) {
+				SwingUtilities.invokeLater(starter);
+			}
+		}
+	}
+
+	/**
+	 * Changes the frame rate.
+	 * 
+	 * @param framesPerSecond
+	 *            The maximum number of flushes per second.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code framesPerSecond} isn't positive.
+	 */
+	public void setFramesPerSecond(int framesPerSecond) throws InvalidParameterException {
+		if (framesPerSecond > 0) {
+			int delay = Math.max(1, 1000 / framesPerSecond);
+
+			timer.setDelay(delay);
+			timer.setInitialDelay(delay);
+		} else {
+			throw new InvalidParameterException("The frame rate must be positive!");
+		}
+	}
+
+	/**
+	 * Stops the bus for ever. The pending and later values are ignored. It is
+	 * invoked automatically when the window is closed.
+	 */
+	public void stop() {
+		stopped = true;
+		SwingUtilities.invokeLater(new Runnable() {
+
+			@Override
+			public void run() {
+				timer.stop();
+			}
+
+		});
+	}
+
+	/**
+	 * Pauses the bus. The values posted meanwhile are kept (only the latest
+	 * of each key) and applied after {@code resume()}. It is invoked
+	 * automatically when the window hibernates.
+	 */
+	public void pause() {
+		paused = true;
+	}
+
+	/**
+	 * Resumes the bus paused by {@code pause()}, applying the pending values
+	 * in the next frame. Must be invoked in the Event Dispatch Thread.
+	 */
+	public void resume() {
+		if (paused) {
+			paused = false;
+			active.set(true);
+			starter.run();
+		}
+	}
+
+	/**
+	 * Resumes the bus paused by {@code pause()}, applying the pending values
+	 * right away but without laying out the window, so the caller can do a
+	 * single layout for them and its own changes. Must be invoked in the Event
+	 * Dispatch Thread.
+	 * 
+	 * @return {@code true} if any value was applied.
+	 */
+	public boolean resumeAndApply() {
+		boolean applied = false;
+
+		if (paused) {
+			paused = false;
+
+			if (!stopped) {
+				applied = applyPending();
+			}
+
+			idle();
+		}
+
+		return applied;
+	}
+
+	/**
+	 * Checks if the bus is stopped.
+	 * 
+	 * @return {@code true} if {@code stop()} was invoked.
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/*
+	 * Apply the latest value of every changed key, then lay out once. The
+	 * timer stops when a frame has nothing to apply, and the next post starts
+	 * it again.
+	 */
+	private void flush() {
+		if (stopped || paused) {
+			timer.stop();
+		} else if (applyPending()) {
+			window.getRootPane().revalidate();
+			window.getRootPane().repaint();
+		} else {
+			idle();
+		}
+	}
+
+	/*
+	 * Apply the latest value of every changed key, without layout.
+	 */
+	private boolean applyPending() {
+		boolean applied = false;
+
+		for (int word = 0; word < dirty.length(); word++) {
+			long bits = dirty.getAndSet(word, 0L);
+
+			while (bits != 0L) {
+				int key = (word << 6) + Long.numberOfTrailingZeros(bits);
+				Object value = slots.getAndSet(key, EMPTY);
+
+				bits &= bits - 1L;
+
+				if (value != EMPTY) {
+					applied = true;
+
+					try {
+						window.singleSetter(key, value);
+					} catch (InvalidCommandException ice) {
+						Logger.getLogger(UpdateBus.class.getName()).log(Level.WARNING, ice.getMessage(), ice);
+					}
+				}
+			}
+		}
+
+		return applied;
+	}
+
+	/*
+	 * Stop the timer until the next post.
+	 */
+	private void idle() {
+		timer.stop();
+		active.set(false);
+
+		// A value posted while stopping the timer must start it again
+		for (int word = 0; word < dirty.length(); word++) {
+			if ((dirty.get(word) != 0L) && active.compareAndSet(false, true)) {
+				timer.start();
+				break;
+			}
+		}
+	}
+
+}
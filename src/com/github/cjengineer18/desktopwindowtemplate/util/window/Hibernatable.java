@@ -0,0 +1,48 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+/**
+ * A window resource which can be paused while its window is iconified: timers,
+ * animations, pollers, caches... Both methods are invoked in the Event
+ * Dispatch Thread.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#addHibernatable(Hibernatable)
+ * 
+ * @author Cristian Jimenez
+ */
+public interface Hibernatable {
+
+	/**
+	 * Called when the window is iconified. The resource must stop its work
+	 * and can release the memory it can rebuild later (caches, buffers...).
+	 */
+	void hibernate();
+
+	/**
+	 * Called when the window is restored. The resource must start again. The
+	 * window is refreshed once after all its resources are awake, so there's
+	 * no need to repaint here.
+	 */
+	void wake();
+
+}
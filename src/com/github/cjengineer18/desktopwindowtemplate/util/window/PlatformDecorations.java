@@ -0,0 +1,220 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.Preferences;
+
+import javax.swing.JFrame;
+
+/**
+ * The window decorations (border and title bar insets) of the platform. They
+ * are measured only once per process, with a throwaway frame which is disposed
+ * right after, and shared by all the windows. Optionally, the measure can be
+ * saved in the user preferences so the next runs don't need to create the
+ * throwaway frame at all.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow
+ * 
+ * @author Cristian Jimenez
+ */
+public final class PlatformDecorations {
+
+	private static final String PREFERENCES_PREFIX = "decorations.";
+
+	private static volatile PlatformDecorations current;
+	private static boolean persistent;
+
+	private final String osName;
+	private final Insets insets;
+
+	private PlatformDecorations(String osName, Insets insets) {
+		this.osName = osName;
+		this.insets = insets;
+	}
+
+	/**
+	 * Gets the decorations of the platform, measuring them the first time.
+	 * 
+	 * @return The decorations.
+	 */
+	public static PlatformDecorations getDefault() {
+		PlatformDecorations decorations = current;
+
+		if (decorations == null) {
+			synchronized (PlatformDecorations.class) {
+				decorations = current;
+
+				if (decorations == null) {
+					decorations = load();
+					current = decorations;
+				}
+			}
+		}
+
+		return decorations;
+	}
+
+	/**
+	 * Enables or disables saving the measured decorations in the user
+	 * preferences, so they can be reused in the next runs. Invoke before the
+	 * first window is loaded. Disabled by default.
+	 * 
+	 * @param persistent
+	 *            {@code true} to save the decorations.
+	 */
+	public static synchronized void setPersistent(boolean persistent) {
+		PlatformDecorations.persistent = persistent;
+	}
+
+	/**
+	 * Forgets the decorations (including the saved ones), so they are measured
+	 * again by the next window. Useful when the look and feel or the screen
+	 * scale changes.
+	 */
+	public static synchronized void invalidate() {
+		current = null;
+
+		if (persistent) {
+			try {
+				Preferences.userNodeForPackage(PlatformDecorations.class).remove(preferencesKey());
+			} catch (SecurityException | IllegalStateException exc) {
+				Logger.getLogger(PlatformDecorations.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+			}
+		}
+	}
+
+	/**
+	 * Gets the insets of a decorated window.
+	 * 
+	 * @return A copy of the insets.
+	 */
+	public Insets getInsets() {
+		return (Insets) insets.clone();
+	}
+
+	/**
+	 * Checks if the platform is Windows.
+	 * 
+	 * @return {@code true} on Windows.
+	 */
+	public boolean isWindows() {
+		return osName.contains("Windows");
+	}
+
+	/**
+	 * Checks if the platform is Linux.
+	 * 
+	 * @return {@code true} on Linux.
+	 */
+	public boolean isLinux() {
+		return osName.contains("Linux");
+	}
+
+	/**
+	 * Checks if the platform is MacOS.
+	 * 
+	 * @return {@code true} on MacOS.
+	 */
+	public boolean isMac() {
+		return osName.contains("Mac");
+	}
+
+	/*
+	 * Read the saved decorations or measure them.
+	 */
+	private static PlatformDecorations load() {
+		String osName = System.getProperty("os.name", "");
+		Insets insets = persistent ? readInsets() : null;
+
+		if (insets == null) {
+			insets = measureInsets();
+
+			if (persistent) {
+				writeInsets(insets);
+			}
+		}
+
+		return new PlatformDecorations(osName, insets);
+	}
+
+	/*
+	 * Measure the insets with an empty frame. The frame is disposed to release
+	 * its native resources.
+	 */
+	private static Insets measureInsets() {
+		JFrame dummy = new JFrame();
+
+		try {
+			dummy.setLayout(null);
+			dummy.pack();
+			return (Insets) dummy.getInsets().clone();
+		} finally {
+			dummy.dispose();
+		}
+	}
+
+	private static Insets readInsets() {
+		try {
+			String value = Preferences.userNodeForPackage(PlatformDecorations.class).get(preferencesKey(), null);
+
+			if (value != null) {
+				String[] parts = value.split(",");
+
+				if (parts.length == 4) {
+					return new Insets(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+							Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+				}
+			}
+		} catch (NumberFormatException | SecurityException | IllegalStateException exc) {
+			Logger.getLogger(PlatformDecorations.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+		}
+
+		return null;
+	}
+
+	private static void writeInsets(Insets insets) {
+		try {
+			Preferences.userNodeForPackage(PlatformDecorations.class).put(preferencesKey(), String.format(
+					Locale.ENGLISH, "%d,%d,%d,%d", insets.top, insets.left, insets.bottom, insets.right));
+		} catch (SecurityException | IllegalStateException exc) {
+			Logger.getLogger(PlatformDecorations.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+		}
+	}
+
+	/*
+	 * The saved insets are only valid for the same OS, Java and screen
+	 * resolution, so all of them are part of the key.
+	 */
+	private static String preferencesKey() {
+		String environment = String.format(Locale.ENGLISH, "%s|%s|%s|%d", System.getProperty("os.name"),
+				System.getProperty("os.version"), System.getProperty("java.version"),
+				Toolkit.getDefaultToolkit().getScreenResolution());
+
+		return PREFERENCES_PREFIX + Integer.toHexString(environment.hashCode());
+	}
+
+}
@@ -0,0 +1,171 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.util.concurrent.Callable;
+
+import javax.swing.SwingUtilities;
+
+import com.github.cjengineer18.desktopwindowtemplate.JGenericWindow;
+import com.github.cjengineer18.desktopwindowtemplate.util.async.IdleTaskQueue;
+
+/**
+ * A window built ahead of time, while the application is idle. The window is
+ * created, its work area is built and packed, but it stays hidden until
+ * {@code show()} (or {@code showWindow()}) is invoked.
+ * 
+ * @param <T>
+ *            The window class.
+ * 
+ * @see JGenericWindow#prewarm(Callable)
+ * @see IdleTaskQueue
+ * 
+ * @author Cristian Jimenez
+ */
+public final class PrewarmedWindow<T extends JGenericWindow> {
+
+	private static final ThreadLocal<Boolean> building = new ThreadLocal<Boolean>();
+
+	private final Callable<T> factory;
+	private final Runnable task;
+	private volatile T window;
+	private volatile Exception failure;
+
+	private PrewarmedWindow(Callable<T> factory) {
+		this.factory = factory;
+		this.task = new Runnable() {
+
+			@Override
+			public void run() {
+				create();
+			}
+
+		};
+	}
+
+	/**
+	 * Schedules the creation of a window in the idle queue.
+	 * 
+	 * @param <T>
+	 *            The window class.
+	 * @param factory
+	 *            Creates the window (usually, invoking its constructor).
+	 * 
+	 * @return The window to be pre-warmed.
+	 */
+	public static <T extends JGenericWindow> PrewarmedWindow<T> schedule(Callable<T> factory) {
+		PrewarmedWindow<T> prewarmed = new PrewarmedWindow<T>(factory);
+
+		IdleTaskQueue.getDefault().submit(prewarmed.task);
+
+		return prewarmed;
+	}
+
+	/**
+	 * Checks if a window is being created by a pre-warm task in the current
+	 * thread. The windows created this way keep hidden after loading.
+	 * 
+	 * @return {@code true} if a pre-warmed window is being created.
+	 */
+	public static boolean isBuilding() {
+		return Boolean.TRUE.equals(building.get());
+	}
+
+	/**
+	 * Gets the window. If it wasn't created yet, it is created now.
+	 * 
+	 * @return The hidden window.
+	 * 
+	 * @throws Exception
+	 *             If the window couldn't be created.
+	 */
+	public T get() throws Exception {
+		if (window == null) {
+			if (SwingUtilities.isEventDispatchThread()) {
+				create();
+			} else {
+				SwingUtilities.invokeAndWait(task);
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+
+		return window;
+	}
+
+	/**
+	 * Shows the window, creating it first if required.
+	 * 
+	 * @return The shown window.
+	 * 
+	 * @throws Exception
+	 *             If the window couldn't be created.
+	 */
+	public T show() throws Exception {
+		final T shown = get();
+
+		if (SwingUtilities.isEventDispatchThread()) {
+			shown.showWindow();
+		} else {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					shown.showWindow();
+				}
+
+			});
+		}
+
+		return shown;
+	}
+
+	/**
+	 * Checks if the window is already created.
+	 * 
+	 * @return {@code true} if the window exists.
+	 */
+	public boolean isCreated() {
+		return window != null;
+	}
+
+	/*
+	 * Create the window, only once. Always in the EDT.
+	 */
+	private void create() {
+		if ((window == null) && (failure == null)) {
+			IdleTaskQueue.getDefault().cancel(task);
+			building.set(Boolean.TRUE);
+
+			try {
+				window = factory.call();
+			} catch (Exception exc) {
+				failure = exc;
+			} finally {
+				building.remove();
+			}
+		}
+	}
+
+}
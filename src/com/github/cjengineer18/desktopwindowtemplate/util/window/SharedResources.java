@@ -0,0 +1,274 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.awt.Image;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.cjengineer18.desktopwindowtemplate.JGenericWindow;
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * Heavy resources (fonts, icons, models...) shared by many windows and counted
+ * by reference. A resource is created by the first window that acquires it
+ * and released when the last window using it is closed: an {@code Image} is
+ * flushed and an {@code AutoCloseable} is closed.
+ * 
+ * @see JGenericWindow#acquireShared(String, Callable)
+ * @see WindowRegistry
+ * 
+ * @author Cristian Jimenez
+ */
+public final class SharedResources {
+
+	private static final SharedResources defaultResources = new SharedResources();
+
+	private final Map<String, FutureTask<Object>> resources;
+	private final Map<String, Set<JGenericWindow>> users;
+	private final Map<JGenericWindow, Set<String>> acquired;
+	private final WindowAdapter closeListener;
+
+	private SharedResources() {
+		resources = new HashMap<String, FutureTask<Object>>();
+		users = new HashMap<String, Set<JGenericWindow>>();
+		acquired = new IdentityHashMap<JGenericWindow, Set<String>>();
+		closeListener = new WindowAdapter() {
+
+			@Override
+			public void windowClosed(WindowEvent e) {
+				e.getWindow().removeWindowListener(this);
+				releaseAll((JGenericWindow) e.getWindow());
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the shared resources of the application.
+	 * 
+	 * @return The shared resources.
+	 */
+	public static SharedResources getDefault() {
+		return defaultResources;
+	}
+
+	/**
+	 * Acquires a resource for a window. If the resource doesn't exist, it is
+	 * created. The window holds the resource until it releases it or is
+	 * closed; acquiring it again doesn't add another reference.
+	 * <p>
+	 * The resource is created out of the lock, so a slow factory only blocks
+	 * the windows waiting for the same key.
+	 * 
+	 * @param <T>
+	 *            The resource class.
+	 * @param owner
+	 *            The window which uses the resource.
+	 * @param key
+	 *            The resource key.
+	 * @param factory
+	 *            Creates the resource if it doesn't exist.
+	 * 
+	 * @return The resource.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code factory} returns {@code null}.
+	 * @throws Exception
+	 *             If {@code factory} fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T acquire(JGenericWindow owner, String key, final Callable<T> factory) throws Exception {
+		FutureTask<Object> task;
+		boolean creator = false;
+		Object resource;
+
+		synchronized (this) {
+			Set<String> keys = acquired.get(owner);
+
+			task = resources.get(key);
+
+			if (task == null) {
+				task = new FutureTask<Object>(new Callable<Object>() {
+
+					@Override
+					public Object call() throws Exception {
+						Object created = factory.call();
+
+						if (created == null) {
+							throw new InvalidParameterException("The shared resource factory returned null!");
+						}
+
+						return created;
+					}
+
+				});
+				resources.put(key, task);
+				users.put(key, Collections.newSetFromMap(new IdentityHashMap<JGenericWindow, Boolean>()));
+				creator = true;
+			}
+
+			if (keys == null) {
+				keys = new HashSet<String>();
+				acquired.put(owner, keys);
+				// A pooled window is released without being closed, and then
+				// acquires again: it must keep only one listener
+				owner.removeWindowListener(closeListener);
+				owner.addWindowListener(closeListener);
+			}
+
+			keys.add(key);
+			users.get(key).add(owner);
+		}
+
+		if (creator) {
+			task.run();
+		}
+
+		try {
+			resource = task.get();
+		} catch (ExecutionException ee) {
+			release(owner, key);
+			throw (ee.getCause() instanceof Exception) ? (Exception) ee.getCause() : ee;
+		}
+
+		if (creator) {
+			synchronized (this) {
+				// All the users left while it was being created
+				if (resources.get(key) != task) {
+					dispose(resource);
+				}
+			}
+		}
+
+		return (T) resource;
+	}
+
+	/**
+	 * Releases a resource held by a window. If no other window uses it, the
+	 * resource is released.
+	 * 
+	 * @param owner
+	 *            The window which used the resource.
+	 * @param key
+	 *            The resource key.
+	 */
+	public synchronized void release(JGenericWindow owner, String key) {
+		Set<String> keys = acquired.get(owner);
+
+		if ((keys != null) && keys.remove(key)) {
+			if (keys.isEmpty()) {
+				acquired.remove(owner);
+			}
+
+			unuse(owner, key);
+		}
+	}
+
+	/**
+	 * Releases all the resources held by a window. It is invoked
+	 * automatically when the window is closed, or put in a {@link WindowPool}.
+	 * 
+	 * @param owner
+	 *            The window.
+	 */
+	public synchronized void releaseAll(JGenericWindow owner) {
+		Set<String> keys = acquired.remove(owner);
+
+		if (keys != null) {
+			for (String key : keys) {
+				unuse(owner, key);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of windows using a resource.
+	 * 
+	 * @param key
+	 *            The resource key.
+	 * 
+	 * @return The number of windows, {@code 0} if the resource doesn't exist.
+	 */
+	public synchronized int getReferenceCount(String key) {
+		Set<JGenericWindow> windows = users.get(key);
+
+		return (windows != null) ? windows.size() : 0;
+	}
+
+	/**
+	 * Gets the keys of the existing resources.
+	 * 
+	 * @return The keys, sorted.
+	 */
+	public synchronized Set<String> getKeys() {
+		return new TreeSet<String>(resources.keySet());
+	}
+
+	/*
+	 * Remove a user of a resource and release it if it was the last one. The
+	 * caller must hold the lock. A resource still being created is released by
+	 * its creator.
+	 */
+	private void unuse(JGenericWindow owner, String key) {
+		Set<JGenericWindow> windows = users.get(key);
+
+		if ((windows != null) && windows.remove(owner) && windows.isEmpty()) {
+			FutureTask<Object> task = resources.remove(key);
+
+			users.remove(key);
+
+			if ((task != null) && task.isDone()) {
+				try {
+					dispose(task.get());
+				} catch (InterruptedException | ExecutionException exc) {
+					// It was never created
+				}
+			}
+		}
+	}
+
+	private static void dispose(Object resource) {
+		try {
+			if (resource instanceof Image) {
+				((Image) resource).flush();
+			} else if (resource instanceof AutoCloseable) {
+				((AutoCloseable) resource).close();
+			}
+		} catch (Exception exc) {
+			Logger.getLogger(SharedResources.class.getName()).log(Level.WARNING, exc.getMessage(), exc);
+		}
+	}
+
+}
@@ -0,0 +1,281 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.awt.Frame;
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small local store of window geometry (bounds and extended state) by window
+ * key. The store is read from disk only once, the first time it is used, and
+ * the changes are written in a background thread, a while after the last
+ * change, so the Event Dispatch Thread never waits for the disk. The pending
+ * changes are also written when the application exits.
+ * <p>
+ * Each window is stored as one line: {@code key = x,y,width,height,state}.
+ * 
+ * @see com.github.cjengineer18.desktopwindowtemplate.JGenericWindow#persistGeometry(String)
+ * 
+ * @author Cristian Jimenez
+ */
+public final class WindowGeometryStore {
+
+	private static WindowGeometryStore defaultStore;
+
+	private final File file;
+	private final long delay;
+	private final ScheduledThreadPoolExecutor writer;
+	private Properties values;
+	private ScheduledFuture<?> pendingWrite;
+	private boolean hookInstalled;
+
+	/**
+	 * Creates a store.
+	 * 
+	 * @param file
+	 *            The file where the geometry is saved.
+	 * @param delay
+	 *            How long, in milliseconds, to wait after the last change
+	 *            before writing the file.
+	 */
+	public WindowGeometryStore(File file, long delay) {
+		this.file = file;
+		this.delay = delay;
+		this.writer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Window Geometry Writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+
+		});
+		// A drag cancels a write per move; they must not wait in the queue
+		this.writer.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Gets the default store, saved in {@code .desktopwindowtemplate} inside
+	 * the user home.
+	 * 
+	 * @return The default store.
+	 */
+	public static synchronized WindowGeometryStore getDefault() {
+		if (defaultStore == null) {
+			defaultStore = new WindowGeometryStore(new File(new File(System.getProperty("user.home"),
+					".desktopwindowtemplate"), "geometry.properties"), 500L);
+		}
+
+		return defaultStore;
+	}
+
+	/**
+	 * Gets the saved bounds of a window.
+	 * 
+	 * @param key
+	 *            The window key.
+	 * 
+	 * @return The bounds, or {@code null} if there isn't saved geometry.
+	 */
+	public Rectangle getBounds(String key) {
+		long[] parsed = parse(key);
+
+		return (parsed != null) ? new Rectangle((int) parsed[0], (int) parsed[1], (int) parsed[2], (int) parsed[3])
+				: null;
+	}
+
+	/**
+	 * Gets the saved extended state of a window.
+	 * 
+	 * @param key
+	 *            The window key.
+	 * 
+	 * @return The extended state, or {@code Frame.NORMAL} if there isn't saved
+	 *         geometry.
+	 * 
+	 * @see Frame#getExtendedState()
+	 */
+	public int getExtendedState(String key) {
+		long[] parsed = parse(key);
+
+		return (parsed != null) ? (int) parsed[4] : Frame.NORMAL;
+	}
+
+	/**
+	 * Saves the geometry of a window. The file is written later, in
+	 * background.
+	 * 
+	 * @param key
+	 *            The window key.
+	 * @param bounds
+	 *            The window bounds in normal state.
+	 * @param extendedState
+	 *            The extended state. The iconified state isn't saved.
+	 */
+	public synchronized void put(String key, Rectangle bounds, int extendedState) {
+		String value = String.format(Locale.ENGLISH, "%d,%d,%d,%d,%d", bounds.x, bounds.y, bounds.width,
+				bounds.height, extendedState & ~Frame.ICONIFIED);
+
+		if (!value.equals(load().getProperty(key))) {
+			values.setProperty(key, value);
+			scheduleWrite();
+		}
+	}
+
+	/** Writes the pending changes now, in the current thread. */
+	public void flush() {
+		Properties snapshot;
+
+		synchronized (this) {
+			if (pendingWrite == null) {
+				return;
+			}
+
+			pendingWrite.cancel(false);
+			pendingWrite = null;
+			snapshot = (Properties) values.clone();
+		}
+
+		write(snapshot);
+	}
+
+	/*
+	 * Read the file the first time. The caller must hold the lock.
+	 */
+	private Properties load() {
+		if (values == null) {
+			values = new Properties();
+
+			if (file.isFile()) {
+				try (InputStream in = new FileInputStream(file)) {
+					values.load(in);
+				} catch (IOException ioe) {
+					Logger.getLogger(WindowGeometryStore.class.getName()).log(Level.WARNING, ioe.getMessage(), ioe);
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/*
+	 * Parse the line of a window: x, y, width, height and state.
+	 */
+	private synchronized long[] parse(String key) {
+		String value = load().getProperty(key);
+
+		if (value != null) {
+			String[] parts = value.split(",");
+
+			if (parts.length == 5) {
+				try {
+					long[] parsed = new long[5];
+
+					for (int i = 0; i < parsed.length; i++) {
+						parsed[i] = Long.parseLong(parts[i].trim());
+					}
+
+					return parsed;
+				} catch (NumberFormatException nfe) {
+					// Corrupted line, ignore it
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/*
+	 * Debounce the write: every change delays it again. The caller must hold
+	 * the lock.
+	 */
+	private void scheduleWrite() {
+		if (pendingWrite != null) {
+			pendingWrite.cancel(false);
+		}
+
+		pendingWrite = writer.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				flush();
+			}
+
+		}, delay, TimeUnit.MILLISECONDS);
+
+		if (!hookInstalled) {
+			hookInstalled = true;
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					flush();
+				}
+
+			}, "Window Geometry Flush"));
+		}
+	}
+
+	/*
+	 * Write the values in a temporary file and then replace the old file, so
+	 * a crash never leaves a half written store.
+	 */
+	private void write(Properties snapshot) {
+		File parent = file.getAbsoluteFile().getParentFile();
+		File temporary = new File(parent, file.getName() + ".tmp");
+
+		synchronized (file) {
+			if ((parent != null) && !parent.isDirectory() && !parent.mkdirs()) {
+				Logger.getLogger(WindowGeometryStore.class.getName()).log(Level.WARNING,
+						"Can't create " + parent);
+				return;
+			}
+
+			try (OutputStream out = new FileOutputStream(temporary)) {
+				snapshot.store(out, "Window geometry");
+			} catch (IOException ioe) {
+				Logger.getLogger(WindowGeometryStore.class.getName()).log(Level.WARNING, ioe.getMessage(), ioe);
+				return;
+			}
+
+			if (!temporary.renameTo(file) && !(file.delete() && temporary.renameTo(file))) {
+				Logger.getLogger(WindowGeometryStore.class.getName()).log(Level.WARNING, "Can't write " + file);
+			}
+		}
+	}
+
+}
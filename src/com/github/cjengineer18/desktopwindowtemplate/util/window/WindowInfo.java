@@ -0,0 +1,126 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.util.Locale;
+
+/**
+ * A snapshot of a live window, taken by the {@link WindowRegistry}: its state
+ * and an approximation of its memory footprint.
+ * 
+ * @author Cristian Jimenez
+ */
+public final class WindowInfo {
+
+	private final String title;
+	private final Class<?> windowClass;
+	private final boolean visible;
+	private final boolean displayable;
+	private final int extendedState;
+	private final int componentCount;
+	private final long imageBytes;
+
+	WindowInfo(String title, Class<?> windowClass, boolean visible, boolean displayable, int extendedState,
+			int componentCount, long imageBytes) {
+		this.title = title;
+		this.windowClass = windowClass;
+		this.visible = visible;
+		this.displayable = displayable;
+		this.extendedState = extendedState;
+		this.componentCount = componentCount;
+		this.imageBytes = imageBytes;
+	}
+
+	/**
+	 * Gets the window title.
+	 * 
+	 * @return The title.
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * Gets the window class.
+	 * 
+	 * @return The class.
+	 */
+	public Class<?> getWindowClass() {
+		return windowClass;
+	}
+
+	/**
+	 * Checks if the window was visible.
+	 * 
+	 * @return {@code true} if the window was visible.
+	 */
+	public boolean isVisible() {
+		return visible;
+	}
+
+	/**
+	 * Checks if the window was displayable (not disposed).
+	 * 
+	 * @return {@code true} if the window wasn't disposed.
+	 */
+	public boolean isDisplayable() {
+		return displayable;
+	}
+
+	/**
+	 * Gets the extended state of the window.
+	 * 
+	 * @return The state.
+	 * 
+	 * @see java.awt.Frame#getExtendedState()
+	 */
+	public int getExtendedState() {
+		return extendedState;
+	}
+
+	/**
+	 * Gets the number of components in the window, including all the nested
+	 * ones.
+	 * 
+	 * @return The component count.
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Gets the estimated size of the images shown in the window (icons of
+	 * labels and buttons), at 4 bytes per pixel.
+	 * 
+	 * @return The estimated image bytes.
+	 */
+	public long getImageBytes() {
+		return imageBytes;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ENGLISH, "%s [%s] visible=%b, state=%d, components=%d, images=%d KiB",
+				windowClass.getName(), title, visible, extendedState, componentCount, imageBytes / 1024);
+	}
+
+}
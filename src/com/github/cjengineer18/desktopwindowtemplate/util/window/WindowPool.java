@@ -0,0 +1,308 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.github.cjengineer18.desktopwindowtemplate.JGenericWindow;
+import com.github.cjengineer18.desktopwindowtemplate.exception.InvalidParameterException;
+
+/**
+ * A pool of closed secondary windows ready to be shown again. Instead of
+ * building a new window (and its whole work area) every time, the pooled
+ * windows are hidden on close and reused by the next request for the same
+ * window class. A window put in the pool releases its {@link SharedResources}
+ * and stops its update bus, so an idle window doesn't hold them.
+ * <p>
+ * The pool keeps at most {@code maxIdle} windows and disposes the windows
+ * that stay unused for more than {@code idleTimeout} milliseconds.
+ * 
+ * @see JGenericWindow#enablePooling()
+ * 
+ * @author Cristian Jimenez
+ */
+public final class WindowPool {
+
+	private static final WindowPool defaultPool = createDefault();
+
+	private final Map<Class<?>, ArrayDeque<IdleWindow>> idle;
+	private final int maxIdle;
+	private final long idleTimeout;
+	private final Timer evictor;
+	private int idleCount;
+
+	/**
+	 * Creates a new pool.
+	 * 
+	 * @param maxIdle
+	 *            The maximum number of windows in the pool.
+	 * @param idleTimeout
+	 *            How long, in milliseconds, a window can stay in the pool.
+	 * 
+	 * @throws InvalidParameterException
+	 *             If {@code maxIdle} or {@code idleTimeout} aren't positive.
+	 */
+	public WindowPool(int maxIdle, long idleTimeout) throws InvalidParameterException {
+		if ((maxIdle <= 0) || (idleTimeout <= 0)) {
+			throw new InvalidParameterException(String.format(Locale.ENGLISH,
+					"Wrong pool => (maxIdle = %d, idleTimeout = %d)", maxIdle, idleTimeout));
+		}
+
+		this.idle = new HashMap<Class<?>, ArrayDeque<IdleWindow>>();
+		this.maxIdle = maxIdle;
+		this.idleTimeout = idleTimeout;
+		this.evictor = new Timer((int) Math.max(1000L, Math.min(idleTimeout / 2, Integer.MAX_VALUE)),
+				new ActionListener() {
+
+					@Override
+					public void actionPerformed(ActionEvent e) {
+						evictExpired();
+					}
+
+				});
+	}
+
+	/**
+	 * Gets the pool used by the windows with pooling enabled.
+	 * 
+	 * @return The default pool.
+	 */
+	public static WindowPool getDefault() {
+		return defaultPool;
+	}
+
+	/**
+	 * Gets a window of the given class. If there is one in the pool, it is
+	 * reused, otherwise a new one is created with {@code factory}. The window
+	 * is returned hidden; call {@code showWindow()} to show it.
+	 * 
+	 * @param <T>
+	 *            The window class.
+	 * @param type
+	 *            The window class.
+	 * @param factory
+	 *            Creates a new window when the pool doesn't have one.
+	 * 
+	 * @return The window.
+	 * 
+	 * @throws Exception
+	 *             If {@code factory} fails.
+	 * 
+	 * @see JGenericWindow#showWindow()
+	 */
+	public <T extends JGenericWindow> T obtain(Class<T> type, Callable<T> factory) throws Exception {
+		JGenericWindow window = null;
+
+		synchronized (this) {
+			ArrayDeque<IdleWindow> windows = idle.get(type);
+
+			if ((windows != null) && !windows.isEmpty()) {
+				window = windows.pollLast().window;
+				idleCount--;
+			}
+		}
+
+		return (window != null) ? type.cast(window) : factory.call();
+	}
+
+	/**
+	 * Puts a closed window in the pool. This is invoked by the window itself.
+	 * If the pool is full, the oldest window of the pool is disposed.
+	 * 
+	 * @param window
+	 *            The hidden window.
+	 */
+	public void release(JGenericWindow window) {
+		IdleWindow evicted = null;
+
+		synchronized (this) {
+			ArrayDeque<IdleWindow> windows = idle.get(window.getClass());
+
+			if (windows == null) {
+				windows = new ArrayDeque<IdleWindow>();
+				idle.put(window.getClass(), windows);
+			}
+
+			if (idleCount >= maxIdle) {
+				evicted = removeOldest();
+			}
+
+			windows.addLast(new IdleWindow(window, System.currentTimeMillis()));
+			idleCount++;
+		}
+
+		if (evicted != null) {
+			dispose(evicted.window);
+		}
+
+		startEvictor();
+	}
+
+	/** Disposes all the windows in the pool. */
+	public void clear() {
+		List<JGenericWindow> windows = new ArrayList<JGenericWindow>();
+
+		synchronized (this) {
+			for (ArrayDeque<IdleWindow> deque : idle.values()) {
+				for (IdleWindow entry : deque) {
+					windows.add(entry.window);
+				}
+			}
+
+			idle.clear();
+			idleCount = 0;
+		}
+
+		for (JGenericWindow window : windows) {
+			dispose(window);
+		}
+	}
+
+	/**
+	 * Gets the number of windows in the pool.
+	 * 
+	 * @return The number of idle windows.
+	 */
+	public synchronized int getIdleCount() {
+		return idleCount;
+	}
+
+	/*
+	 * The default pool keeps up to 8 windows, for one minute.
+	 */
+	private static WindowPool createDefault() {
+		try {
+			return new WindowPool(8, 60000L);
+		} catch (InvalidParameterException ipe) {
+			// Never happens, the values are valid.
+			throw new IllegalStateException(ipe);
+		}
+	}
+
+	/*
+	 * Dispose the windows that stayed too long in the pool.
+	 */
+	private void evictExpired() {
+		List<JGenericWindow> expired = new ArrayList<JGenericWindow>();
+		long limit = System.currentTimeMillis() - idleTimeout;
+
+		synchronized (this) {
+			for (Iterator<ArrayDeque<IdleWindow>> it = idle.values().iterator(); it.hasNext();) {
+				ArrayDeque<IdleWindow> windows = it.next();
+
+				while (!windows.isEmpty() && (windows.peekFirst().since <= limit)) {
+					expired.add(windows.pollFirst().window);
+					idleCount--;
+				}
+
+				if (windows.isEmpty()) {
+					it.remove();
+				}
+			}
+
+			if (idleCount == 0) {
+				evictor.stop();
+			}
+		}
+
+		for (JGenericWindow window : expired) {
+			window.dispose();
+		}
+	}
+
+	/*
+	 * Remove the window that has been in the pool for more time. The caller
+	 * must hold the lock.
+	 */
+	private IdleWindow removeOldest() {
+		ArrayDeque<IdleWindow> oldest = null;
+
+		for (ArrayDeque<IdleWindow> windows : idle.values()) {
+			if (!windows.isEmpty() && ((oldest == null) || (windows.peekFirst().since < oldest.peekFirst().since))) {
+				oldest = windows;
+			}
+		}
+
+		if (oldest != null) {
+			idleCount--;
+			return oldest.pollFirst();
+		}
+
+		return null;
+	}
+
+	private void startEvictor() {
+		SwingUtilities.invokeLater(new Runnable() {
+
+			@Override
+			public void run() {
+				if (!evictor.isRunning()) {
+					evictor.start();
+				}
+			}
+
+		});
+	}
+
+	private static void dispose(final JGenericWindow window) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			window.dispose();
+		} else {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					window.dispose();
+				}
+
+			});
+		}
+	}
+
+	/*
+	 * A window in the pool and since when.
+	 */
+	private static final class IdleWindow {
+
+		private final JGenericWindow window;
+		private final long since;
+
+		private IdleWindow(JGenericWindow window, long since) {
+			this.window = window;
+			this.since = since;
+		}
+
+	}
+
+}
@@ -0,0 +1,188 @@
+/* 
+ * Copyright (c) 2018-2022 Cristian José Jiménez Diazgranados
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.cjengineer18.desktopwindowtemplate.util.window;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.AbstractButton;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+
+import com.github.cjengineer18.desktopwindowtemplate.JGenericWindow;
+
+/**
+ * The registry of all the {@link JGenericWindow}s alive in the application.
+ * Every window is registered when it is created, and only weakly referenced,
+ * so the registry never keeps a closed window alive.
+ * 
+ * @see WindowInfo
+ * @see SharedResources
+ * 
+ * @author Cristian Jimenez
+ */
+public final class WindowRegistry {
+
+	private static final WindowRegistry defaultRegistry = new WindowRegistry();
+
+	private final List<WeakReference<JGenericWindow>> windows;
+
+	private WindowRegistry() {
+		windows = new ArrayList<WeakReference<JGenericWindow>>();
+	}
+
+	/**
+	 * Gets the registry.
+	 * 
+	 * @return The registry.
+	 */
+	public static WindowRegistry getDefault() {
+		return defaultRegistry;
+	}
+
+	/**
+	 * Registers a window. This is invoked by the window itself.
+	 * 
+	 * @param window
+	 *            The new window.
+	 */
+	public synchronized void register(JGenericWindow window) {
+		prune();
+		windows.add(new WeakReference<JGenericWindow>(window));
+	}
+
+	/**
+	 * Gets the live windows, including the hidden and the disposed ones that
+	 * weren't collected yet.
+	 * 
+	 * @return The windows, in creation order.
+	 */
+	public synchronized List<JGenericWindow> getWindows() {
+		List<JGenericWindow> alive = new ArrayList<JGenericWindow>(windows.size());
+
+		prune();
+
+		for (WeakReference<JGenericWindow> reference : windows) {
+			JGenericWindow window = reference.get();
+
+			if (window != null) {
+				alive.add(window);
+			}
+		}
+
+		return alive;
+	}
+
+	/**
+	 * Takes a snapshot of every live window, sorted by footprint (the heaviest
+	 * window first). Must be invoked in the Event Dispatch Thread, because it
+	 * walks the component trees.
+	 * 
+	 * @return The window snapshots.
+	 */
+	public List<WindowInfo> getInfo() {
+		List<WindowInfo> info = new ArrayList<WindowInfo>();
+
+		for (JGenericWindow window : getWindows()) {
+			long[] footprint = new long[2];
+
+			measure(window, footprint);
+			info.add(new WindowInfo(window.getTitle(), window.getClass(), window.isVisible(),
+					window.isDisplayable(), window.getExtendedState(), (int) footprint[0], footprint[1]));
+		}
+
+		Collections.sort(info, new Comparator<WindowInfo>() {
+
+			@Override
+			public int compare(WindowInfo o1, WindowInfo o2) {
+				int byImages = Long.compare(o2.getImageBytes(), o1.getImageBytes());
+
+				return (byImages != 0) ? byImages : Integer.compare(o2.getComponentCount(), o1.getComponentCount());
+			}
+
+		});
+
+		return info;
+	}
+
+	/**
+	 * Gets the estimated image bytes of all the live windows. Must be invoked
+	 * in the Event Dispatch Thread.
+	 * 
+	 * @return The total image bytes.
+	 */
+	public long getTotalImageBytes() {
+		long total = 0L;
+
+		for (WindowInfo windowInfo : getInfo()) {
+			total += windowInfo.getImageBytes();
+		}
+
+		return total;
+	}
+
+	/*
+	 * Remove the collected windows. The caller must hold the lock.
+	 */
+	private void prune() {
+		Iterator<WeakReference<JGenericWindow>> iterator = windows.iterator();
+
+		while (iterator.hasNext()) {
+			if (iterator.next().get() == null) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/*
+	 * Count the components and the icon pixels of a component tree.
+	 */
+	private static void measure(Container container, long[] footprint) {
+		for (Component component : container.getComponents()) {
+			Icon icon = null;
+
+			footprint[0]++;
+
+			if (component instanceof JLabel) {
+				icon = ((JLabel) component).getIcon();
+			} else if (component instanceof AbstractButton) {
+				icon = ((AbstractButton) component).getIcon();
+			}
+
+			if (icon instanceof ImageIcon) {
+				footprint[1] += 4L * icon.getIconWidth() * icon.getIconHeight();
+			}
+
+			if (component instanceof Container) {
+				measure((Container) component, footprint);
+			}
+		}
+	}
+
+}